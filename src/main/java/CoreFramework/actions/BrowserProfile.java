@@ -0,0 +1,192 @@
+package CoreFramework.actions;
+
+import CoreFramework.config.ConfigManager;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.remote.AbstractDriverOptions;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxOptions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Browser launch profiles, selected with browserProfile in config.properties.
+ *
+ *  - DEFAULT: plain options and a maximized window (what the framework always did)
+ *  - FAST: headless with a fixed viewport, eager page load, extensions / background networking / GPU
+ *          disabled, optional image blocking and a fresh profile directory per session
+ *
+ * Each browser family gets the equivalent options for the same profile.
+ * The temp profile directories are deleted by deleteProfileDirectories() at suite end.
+ */
+public enum BrowserProfile {
+
+    DEFAULT,
+    FAST;
+
+    // Profile folders created by this JVM, removed once their browsers have quit
+    private static final Set<Path> PROFILE_DIRECTORIES = ConcurrentHashMap.newKeySet();
+
+    public static BrowserProfile fromConfig() {
+        String name = ConfigManager.getBrowserProfile();
+        if (name == null || name.isBlank()) {
+            return DEFAULT;
+        }
+        return BrowserProfile.valueOf(name.trim().toUpperCase());
+    }
+
+    /**
+     * Whether DriverFactory should maximize the window after launch.
+     * The fast profile uses a fixed viewport instead, which also works headless.
+     */
+    public boolean maximizeWindow() {
+        return this == DEFAULT;
+    }
+
+    public ChromeOptions chromeOptions() {
+        ChromeOptions options = new ChromeOptions();
+        if (this == FAST) {
+            applyChromiumFastOptions(options);
+        }
+        applyReadyNavigation(options);
+        return options;
+    }
+
+    public EdgeOptions edgeOptions() {
+        EdgeOptions options = new EdgeOptions();
+        if (this == FAST) {
+            applyChromiumFastOptions(options);
+        }
+        applyReadyNavigation(options);
+        return options;
+    }
+
+    public FirefoxOptions firefoxOptions() {
+        FirefoxOptions options = new FirefoxOptions();
+        if (this == FAST) {
+            int[] size = windowSize();
+            options.setPageLoadStrategy(PageLoadStrategy.EAGER);
+            if (ConfigManager.isHeadless()) {
+                options.addArguments("-headless");
+            }
+            options.addArguments("--width=" + size[0], "--height=" + size[1]);
+            options.addArguments("-profile", newProfileDirectory().toString());
+
+            options.addPreference("extensions.update.enabled", false);
+            options.addPreference("app.update.auto", false);
+            options.addPreference("browser.shell.checkDefaultBrowser", false);
+            options.addPreference("network.prefetch-next", false);
+            options.addPreference("network.dns.disablePrefetch", true);
+            options.addPreference("browser.safebrowsing.malware.enabled", false);
+            options.addPreference("browser.safebrowsing.phishing.enabled", false);
+            options.addPreference("datareporting.policy.dataSubmissionEnabled", false);
+            options.addPreference("toolkit.telemetry.enabled", false);
+            options.addPreference("layers.acceleration.disabled", true);
+            if (ConfigManager.isDisableImages()) {
+                options.addPreference("permissions.default.image", 2);
+            }
+        }
+        applyReadyNavigation(options);
+        return options;
+    }
+
+    /**
+     * Delete the profile folders created by this JVM (call at suite end, after the browsers have quit).
+     * A folder that is still in use (browser not quit yet) is kept and retried on the next call.
+     */
+    public static void deleteProfileDirectories() {
+        int deleted = 0;
+        for (Path dir : PROFILE_DIRECTORIES) {
+            try (Stream<Path> files = Files.walk(dir)) {
+                // Deepest first, so every folder is empty when its turn comes
+                List<Path> paths = files.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+                for (Path file : paths) {
+                    Files.deleteIfExists(file);
+                }
+                PROFILE_DIRECTORIES.remove(dir);
+                deleted++;
+            } catch (IOException | UncheckedIOException e) {
+                System.out.println("[BrowserProfile] Could not delete profile directory " + dir + ": " + e.getMessage());
+            }
+        }
+        if (deleted > 0) {
+            System.out.println("[BrowserProfile] Deleted " + deleted + " temp profile directories.");
+        }
+    }
+
+    // ================= INTERNAL IMPLEMENTATION =================
+
+    /**
+     * With a ready-navigation mode, ReadyNavigator decides when a page is usable,
+     * so the driver must not hold commands back until the load event.
+     */
+    private static void applyReadyNavigation(AbstractDriverOptions<?> options) {
+        if (ReadyNavigator.Mode.fromConfig() != ReadyNavigator.Mode.LOAD) {
+            options.setPageLoadStrategy(PageLoadStrategy.NONE);
+        }
+    }
+
+    private static void applyChromiumFastOptions(ChromiumOptions<?> options) {
+        int[] size = windowSize();
+        options.setPageLoadStrategy(PageLoadStrategy.EAGER);
+        if (ConfigManager.isHeadless()) {
+            options.addArguments("--headless=new");
+        }
+        options.addArguments(
+                "--window-size=" + size[0] + "," + size[1],
+                "--disable-extensions",
+                "--disable-background-networking",
+                "--disable-background-timer-throttling",
+                "--disable-component-update",
+                "--disable-default-apps",
+                "--disable-sync",
+                "--disable-gpu",
+                "--disable-dev-shm-usage",
+                "--no-first-run",
+                "--no-default-browser-check",
+                "--user-data-dir=" + newProfileDirectory());
+
+        if (ConfigManager.isDisableImages()) {
+            Map<String, Object> prefs = new HashMap<>();
+            prefs.put("profile.managed_default_content_settings.images", 2);
+            options.setExperimentalOption("prefs", prefs);
+        }
+    }
+
+    private static int[] windowSize() {
+        String raw = ConfigManager.getWindowSize();
+        String[] parts = raw.split("[,x]");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("windowSize must look like 1920,1080 but was: " + raw);
+        }
+        return new int[]{Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim())};
+    }
+
+    /**
+     * Every session gets its own profile folder; browsers refuse to share one between processes.
+     */
+    private static Path newProfileDirectory() {
+        try {
+            Path base = Paths.get(ConfigManager.getBrowserProfileDir());
+            Files.createDirectories(base);
+            Path dir = Files.createTempDirectory(base, "profile-").toAbsolutePath();
+            PROFILE_DIRECTORIES.add(dir);
+            return dir;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to create browser profile directory", e);
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package CoreFramework.actions;
+
+import CoreFramework.config.ConfigManager;
+import CoreFramework.utils.LatencyHistogram;
+import CoreFramework.utils.TestContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CommandMetrics times every WebDriver command that goes to the browser.
+ *
+ * Behavior:
+ *  - DriverFactory wraps each new driver with decorate(driver) when commandMetricsEnabled=true
+ *  - every command is recorded into a per-test and a suite-wide histogram for its Command type
+ *  - round-trips are counted; local calls such as manage() or navigate() are not
+ *  - the per-test summary is attached to Allure, the suite summary is written to metricsDir
+ *    (command-latency.json for the last run, command-latency-history.jsonl for trends)
+ *
+ * Recording only updates counters, so the overhead per command is a few hundred nanoseconds.
+ */
+public class CommandMetrics implements WebDriverListener {
+
+    public enum Command {
+        FIND_ELEMENT,
+        CLICK,
+        SEND_KEYS,
+        GET,
+        EXECUTE_SCRIPT,
+        SCREENSHOT,
+        OTHER
+    }
+
+    private static final Command[] COMMANDS = Command.values();
+    private static final LatencyHistogram[] SUITE = newHistograms();
+    private static final AtomicLong suiteRoundTrips = new AtomicLong();
+
+    private static final CommandMetrics LISTENER = new CommandMetrics();
+
+    /**
+     * Wrap a driver so its commands are timed. The wrapper still implements the driver's
+     * interfaces (JavascriptExecutor, TakesScreenshot, HasCdp, WrapsDriver, ...).
+     */
+    public static WebDriver decorate(WebDriver driver) {
+        return new EventFiringDecorator<>(LISTENER).decorate(driver);
+    }
+
+    /**
+     * Forget the previous test's numbers on this thread (worker threads are reused).
+     */
+    public static void startTest() {
+        Recorder recorder = TestContext.current().getCommandRecorder();
+        recorder.depth = 0;
+        recorder.roundTrips = 0;
+        for (LatencyHistogram histogram : recorder.histograms) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * JSON summary of the commands the current test sent.
+     */
+    public static String testSummaryJson(String testName) {
+        Recorder recorder = TestContext.current().getCommandRecorder();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("test", testName);
+        summary.put("roundTrips", recorder.roundTrips);
+        summary.put("commands", toMap(recorder.histograms));
+        return new Json().toJson(summary);
+    }
+
+    /**
+     * JSON summary of all commands sent during the run.
+     */
+    public static String suiteSummaryJson() {
+        return new Json().toJson(suiteSummary());
+    }
+
+    /**
+     * One-line summary for the console, e.g. "roundTrips=120, FIND_ELEMENT p50=3.2ms p99=40.9ms, ...".
+     */
+    public static String metricsSummary() {
+        StringBuilder sb = new StringBuilder("roundTrips=").append(suiteRoundTrips.get());
+        for (Command command : COMMANDS) {
+            LatencyHistogram histogram = SUITE[command.ordinal()];
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            Map<String, Object> stats = histogram.toMap();
+            sb.append(", ").append(command)
+                    .append(" n=").append(stats.get("count"))
+                    .append(" p50=").append(stats.get("p50Ms")).append("ms")
+                    .append(" p99=").append(stats.get("p99Ms")).append("ms");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Write the suite summary to metricsDir and append it to the history file. Returns the summary file.
+     */
+    public static Path writeSuiteReport() {
+        Path dir = Paths.get(ConfigManager.getMetricsDir());
+        try {
+            Files.createDirectories(dir);
+            Json json = new Json();
+            Map<String, Object> summary = suiteSummary();
+
+            Path latest = dir.resolve("command-latency.json");
+            Files.write(latest, json.toJson(summary).getBytes(StandardCharsets.UTF_8));
+
+            // One compact line per run, so a CI job can chart the history
+            StringBuilder line = new StringBuilder();
+            try (JsonOutput output = json.newOutput(line)) {
+                output.setPrettyPrint(false).write(summary);
+            }
+            line.append(System.lineSeparator());
+            Files.write(dir.resolve("command-latency-history.jsonl"), line.toString().getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            return latest;
+        } catch (IOException e) {
+            System.out.println("[CommandMetrics] Failed to write metrics to " + dir + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    public static LatencyHistogram getSuiteHistogram(Command command) {
+        return SUITE[command.ordinal()];
+    }
+
+    public static long getSuiteRoundTrips() {
+        return suiteRoundTrips.get();
+    }
+
+    // ================= LISTENER CALLBACKS =================
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (isLocal(method.getName())) {
+            return;
+        }
+        Recorder recorder = TestContext.current().getCommandRecorder();
+        if (recorder.depth < recorder.starts.length) {
+            recorder.starts[recorder.depth] = System.nanoTime();
+        }
+        recorder.depth++;
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        finish(method);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        // Failed commands (e.g. a findElement that found nothing) still cost a round-trip
+        finish(method);
+    }
+
+    // ================= INTERNAL IMPLEMENTATION =================
+
+    private static void finish(Method method) {
+        String name = method.getName();
+        if (isLocal(name)) {
+            return;
+        }
+        Recorder recorder = TestContext.current().getCommandRecorder();
+        if (recorder.depth == 0) {
+            return;
+        }
+        recorder.depth--;
+        if (recorder.depth >= recorder.starts.length) {
+            return;
+        }
+        long elapsed = System.nanoTime() - recorder.starts[recorder.depth];
+        int index = commandFor(name).ordinal();
+
+        recorder.histograms[index].record(elapsed);
+        recorder.roundTrips++;
+        SUITE[index].record(elapsed);
+        suiteRoundTrips.incrementAndGet();
+    }
+
+    private static Command commandFor(String methodName) {
+        switch (methodName) {
+            case "findElement":
+            case "findElements":
+                return Command.FIND_ELEMENT;
+            case "click":
+                return Command.CLICK;
+            case "sendKeys":
+                return Command.SEND_KEYS;
+            case "get":
+            case "to":
+            case "back":
+            case "forward":
+            case "refresh":
+                return Command.GET;
+            case "executeScript":
+            case "executeAsyncScript":
+                return Command.EXECUTE_SCRIPT;
+            case "getScreenshotAs":
+                return Command.SCREENSHOT;
+            default:
+                return Command.OTHER;
+        }
+    }
+
+    /**
+     * Calls answered by the client without talking to the browser.
+     */
+    private static boolean isLocal(String methodName) {
+        switch (methodName) {
+            case "manage":
+            case "navigate":
+            case "switchTo":
+            case "timeouts":
+            case "window":
+            case "getWrappedDriver":
+            case "getWrappedElement":
+            case "getCapabilities":
+            case "getSessionId":
+            case "toString":
+            case "hashCode":
+            case "equals":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static Map<String, Object> suiteSummary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("timestamp", Instant.now().toString());
+        summary.put("browser", ConfigManager.getBrowser());
+        summary.put("profile", BrowserProfile.fromConfig().name());
+        summary.put("roundTrips", suiteRoundTrips.get());
+        summary.put("commands", toMap(SUITE));
+        return summary;
+    }
+
+    private static Map<String, Object> toMap(LatencyHistogram[] histograms) {
+        Map<String, Object> commands = new LinkedHashMap<>();
+        for (Command command : COMMANDS) {
+            LatencyHistogram histogram = histograms[command.ordinal()];
+            if (histogram.getCount() > 0) {
+                commands.put(command.name(), histogram.toMap());
+            }
+        }
+        return commands;
+    }
+
+    private static LatencyHistogram[] newHistograms() {
+        LatencyHistogram[] histograms = new LatencyHistogram[COMMANDS.length];
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+        return histograms;
+    }
+
+    /**
+     * Per-thread recording state, kept in TestContext.
+     * The start-time stack only grows if a command is issued from inside another one.
+     */
+    public static final class Recorder {
+        private final LatencyHistogram[] histograms = newHistograms();
+        private final long[] starts = new long[8];
+        private int depth;
+        private long roundTrips;
+
+        public long getRoundTrips() {
+            return roundTrips;
+        }
+
+        public LatencyHistogram getHistogram(Command command) {
+            return histograms[command.ordinal()];
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package CoreFramework.actions;
+
+import CoreFramework.config.ConfigManager;
+import io.github.bonigarcia.wdm.WebDriverManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Resolves the driver binary (chromedriver / geckodriver / msedgedriver) once per browser per JVM.
+ *
+ * Resolution order:
+ *  1. the webdriver.*.driver system property, if it is already set
+ *  2. a binary found in driverCachePath (the only option when driverOffline=true)
+ *  3. WebDriverManager, using driverCachePath as its cache folder when configured
+ *
+ * Concurrent callers for the same browser wait for the first resolution instead of repeating it.
+ */
+public final class DriverBinaryResolver {
+
+    private static final Map<String, Resolution> RESOLVED = new ConcurrentHashMap<>();
+
+    private DriverBinaryResolver() {
+    }
+
+    /**
+     * Resolve the driver binary for the given browser (chrome, firefox or edge).
+     * Only the first call per browser does any work; later calls return the memoized result.
+     */
+    public static Resolution resolve(String browser) {
+        return RESOLVED.computeIfAbsent(browser.toLowerCase(), DriverBinaryResolver::doResolve);
+    }
+
+    /**
+     * Every resolution done so far, for startup-cost reporting.
+     */
+    public static Collection<Resolution> getResolutions() {
+        return Collections.unmodifiableCollection(RESOLVED.values());
+    }
+
+    // ================= INTERNAL IMPLEMENTATION =================
+
+    private static Resolution doResolve(String browser) {
+        long start = System.nanoTime();
+        String property = systemPropertyFor(browser);
+        String cachePath = ConfigManager.getDriverCachePath();
+
+        Resolution resolution;
+        String preset = System.getProperty(property);
+        if (preset != null && !preset.isBlank()) {
+            resolution = new Resolution(browser, preset, "system-property", true, elapsedMillis(start));
+        } else {
+            Optional<Path> cached = findCachedBinary(cachePath, binaryNameFor(browser));
+            if (ConfigManager.isDriverOffline()) {
+                Path binary = cached.orElseThrow(() -> new IllegalStateException(
+                        "driverOffline=true but no " + binaryNameFor(browser) + " was found under driverCachePath '"
+                                + cachePath + "'."));
+                System.setProperty(property, binary.toString());
+                resolution = new Resolution(browser, binary.toString(), "offline-cache", true, elapsedMillis(start));
+            } else {
+                WebDriverManager manager = managerFor(browser);
+                if (cachePath != null && !cachePath.isBlank()) {
+                    manager.cachePath(cachePath);
+                }
+                manager.setup();
+                resolution = new Resolution(browser, manager.getDownloadedDriverPath(), "webdrivermanager",
+                        cached.isPresent(), elapsedMillis(start));
+            }
+        }
+
+        System.out.println("[DriverBinaryResolver] " + resolution);
+        return resolution;
+    }
+
+    private static WebDriverManager managerFor(String browser) {
+        switch (browser) {
+            case "firefox":
+                return WebDriverManager.firefoxdriver();
+            case "edge":
+                return WebDriverManager.edgedriver();
+            case "chrome":
+            default:
+                return WebDriverManager.chromedriver();
+        }
+    }
+
+    private static String systemPropertyFor(String browser) {
+        switch (browser) {
+            case "firefox":
+                return "webdriver.gecko.driver";
+            case "edge":
+                return "webdriver.edge.driver";
+            case "chrome":
+            default:
+                return "webdriver.chrome.driver";
+        }
+    }
+
+    private static String binaryNameFor(String browser) {
+        String name;
+        switch (browser) {
+            case "firefox":
+                name = "geckodriver";
+                break;
+            case "edge":
+                name = "msedgedriver";
+                break;
+            case "chrome":
+            default:
+                name = "chromedriver";
+                break;
+        }
+        boolean windows = System.getProperty("os.name", "").toLowerCase().contains("win");
+        return windows ? name + ".exe" : name;
+    }
+
+    /**
+     * Newest driver binary with the given file name anywhere under the cache folder.
+     */
+    private static Optional<Path> findCachedBinary(String cachePath, String binaryName) {
+        if (cachePath == null || cachePath.isBlank()) {
+            return Optional.empty();
+        }
+        Path root = Paths.get(cachePath);
+        if (!Files.isDirectory(root)) {
+            return Optional.empty();
+        }
+        try (Stream<Path> files = Files.walk(root)) {
+            return files
+                    .filter(p -> p.getFileName().toString().equals(binaryName))
+                    .filter(Files::isExecutable)
+                    .max(Comparator.comparingLong(DriverBinaryResolver::lastModified));
+        } catch (IOException e) {
+            System.out.println("[DriverBinaryResolver] Failed to scan driver cache: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Outcome of resolving one browser's driver binary.
+     */
+    public static final class Resolution {
+        private final String browser;
+        private final String driverPath;
+        private final String source;
+        private final boolean cacheHit;
+        private final long durationMillis;
+
+        Resolution(String browser, String driverPath, String source, boolean cacheHit, long durationMillis) {
+            this.browser = browser;
+            this.driverPath = driverPath;
+            this.source = source;
+            this.cacheHit = cacheHit;
+            this.durationMillis = durationMillis;
+        }
+
+        public String getBrowser() {
+            return browser;
+        }
+
+        public String getDriverPath() {
+            return driverPath;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public boolean isCacheHit() {
+            return cacheHit;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        @Override
+        public String toString() {
+            return browser + " driver resolved in " + durationMillis + "ms"
+                    + " (source=" + source + ", cacheHit=" + cacheHit + ", path=" + driverPath + ")";
+        }
+    }
+}
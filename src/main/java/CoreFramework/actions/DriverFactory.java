@@ -1,71 +1,217 @@
 package CoreFramework.actions;
 
 import CoreFramework.config.ConfigManager;
-import io.github.bonigarcia.wdm.WebDriverManager;
+import CoreFramework.utils.TestContext;
+import org.openqa.selenium.HasCapabilities;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.devtools.HasDevTools;
 import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
 
 import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class DriverFactory {
 
-    private static final ThreadLocal<WebDriver> driver = new ThreadLocal<>();
+    // Created on first use when driverPoolEnabled=true
+    private static volatile DriverPool pool;
 
-    public static void initDriver() {
-        if (driver.get() == null) {
-            String browser = ConfigManager.getBrowser().toLowerCase();
-
-            WebDriver webDriver;
-
-            switch (browser) {
-                case "firefox":
-                    WebDriverManager.firefoxdriver().setup();
-                    FirefoxOptions ffOptions = new FirefoxOptions();
-                    webDriver = new FirefoxDriver(ffOptions);
-                    break;
-                case "edge":
-                    WebDriverManager.edgedriver().setup();
-                    EdgeOptions edgeOptions = new EdgeOptions();
-                    webDriver = new EdgeDriver(edgeOptions);
-                    break;
-                case "chrome":
-                default:
-                    WebDriverManager.chromedriver().setup();
-                    ChromeOptions chOptions = new ChromeOptions();
-                    webDriver = new ChromeDriver(chOptions);
-                    break;
-            }
+    // Created on first use when executionMode=remote
+    private static volatile GridRouter gridRouter;
 
-            webDriver.manage().window().maximize();
-            webDriver.manage().timeouts()
-                    .implicitlyWait(Duration.ofSeconds(ConfigManager.getImplicitWait()));
+    private static final AtomicLong launches = new AtomicLong();
+    private static final AtomicLong launchNanosTotal = new AtomicLong();
 
-            driver.set(webDriver);
+    public static void initDriver() {
+        TestContext context = TestContext.current();
+        if (context.getDriver() == null) {
+            WebDriver webDriver = ConfigManager.isDriverPoolEnabled()
+                    ? getPool().borrow()
+                    : createDriver();
+            context.setDriver(webDriver);
         }
     }
 
     public static WebDriver getDriver() {
-        if (driver.get() == null) {
+        WebDriver webDriver = TestContext.current().getDriver();
+        if (webDriver == null) {
             throw new IllegalStateException("WebDriver is not initialized. " +
                     "Call DriverFactory.initDriver() first.");
         }
-        return driver.get();
+        return webDriver;
     }
 
+    /**
+     * Quit the driver for this thread, or hand it back to the pool when pooling is enabled.
+     */
     public static void quitDriver() {
-        WebDriver webDriver = driver.get();
+        TestContext context = TestContext.current();
+        WebDriver webDriver = context.getDriver();
         if (webDriver != null) {
-            webDriver.quit();
-            driver.remove();
+            try {
+                DriverPool activePool = pool;
+                if (activePool != null) {
+                    activePool.release(webDriver);
+                } else {
+                    webDriver.quit();
+                }
+            } finally {
+                context.setDriver(null);
+            }
         }
         else {
             throw new IllegalStateException("WebDriver has not been initialized for this thread.");
 
         }
     }
+
+    /**
+     * Start launching pooled sessions in the background (no-op when pooling is disabled),
+     * so even the first test of each worker can find a ready browser.
+     */
+    public static void warmUp() {
+        if (ConfigManager.isDriverPoolEnabled()) {
+            getPool().prewarm();
+        }
+    }
+
+    /**
+     * Quit all pooled sessions, delete the temp browser profiles and print launch and pool statistics.
+     * Safe to call when pooling is disabled.
+     */
+    public static synchronized void shutdown() {
+        System.out.println("[DriverFactory] " + launchSummary());
+        if (gridRouter != null) {
+            System.out.println("[GridRouter] " + gridRouter.loadSummary());
+        }
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+        BrowserProfile.deleteProfileDirectories();
+    }
+
+    /**
+     * Pool statistics (hits, misses, launch time saved), or null when pooling is disabled.
+     */
+    public static DriverPool getPoolIfActive() {
+        return pool;
+    }
+
+    private static DriverPool getPool() {
+        DriverPool current = pool;
+        if (current == null) {
+            synchronized (DriverFactory.class) {
+                current = pool;
+                if (current == null) {
+                    current = new DriverPool(DriverFactory::createDriver);
+                    pool = current;
+                    Runtime.getRuntime().addShutdownHook(
+                            new Thread(DriverFactory::shutdown, "driver-pool-shutdown"));
+                }
+            }
+        }
+        return current;
+    }
+
+    private static GridRouter getGridRouter() {
+        GridRouter current = gridRouter;
+        if (current == null) {
+            synchronized (DriverFactory.class) {
+                current = gridRouter;
+                if (current == null) {
+                    current = new GridRouter();
+                    gridRouter = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static WebDriver createDriver() {
+        return createDriver(BrowserProfile.fromConfig());
+    }
+
+    /**
+     * Launch a new, unpooled browser with the given profile.
+     * Used internally and by benchmarks that compare profiles side by side.
+     */
+    public static WebDriver createDriver(BrowserProfile profile) {
+        String browser = ConfigManager.getBrowser().toLowerCase();
+        boolean remote = ConfigManager.isRemoteExecution();
+        if (!remote) {
+            // Version check / download happens once per JVM, not on every launch
+            DriverBinaryResolver.resolve(browser);
+        }
+
+        long start = System.nanoTime();
+        boolean shapeNetwork = NetworkShaper.isConfigured();
+        WebDriver webDriver;
+
+        switch (browser) {
+            case "firefox":
+                FirefoxOptions ffOptions = profile.firefoxOptions();
+                if (shapeNetwork) {
+                    // Network interception in Firefox goes through WebDriver BiDi
+                    ffOptions.setCapability("webSocketUrl", true);
+                }
+                webDriver = remote ? getGridRouter().createSession(ffOptions) : new FirefoxDriver(ffOptions);
+                break;
+            case "edge":
+                EdgeOptions edgeOptions = profile.edgeOptions();
+                webDriver = remote ? getGridRouter().createSession(edgeOptions) : new EdgeDriver(edgeOptions);
+                break;
+            case "chrome":
+            default:
+                ChromeOptions chOptions = profile.chromeOptions();
+                webDriver = remote ? getGridRouter().createSession(chOptions) : new ChromeDriver(chOptions);
+                break;
+        }
+
+        if (profile.maximizeWindow()) {
+            webDriver.manage().window().maximize();
+        }
+        // Waits are explicit (WaitEngine); with an implicit wait, every missed findElement would block
+        webDriver.manage().timeouts().implicitlyWait(Duration.ZERO);
+        if (shapeNetwork) {
+            NetworkShaper.apply(webDriver);
+        }
+        if (ConfigManager.isCommandMetricsEnabled()) {
+            webDriver = CommandMetrics.decorate(webDriver);
+        }
+
+        launches.incrementAndGet();
+        launchNanosTotal.addAndGet(System.nanoTime() - start);
+        return webDriver;
+    }
+
+    /**
+     * Whether this (unwrapped) driver speaks CDP: a local Chrome / Edge, or a remote Chromium session
+     * that GridRouter augmented with HasDevTools. Firefox is left to WebDriver BiDi.
+     */
+    public static boolean hasCdp(WebDriver raw) {
+        if (raw instanceof ChromiumDriver) {
+            return true;
+        }
+        if (!(raw instanceof HasDevTools) || !(raw instanceof HasCapabilities)) {
+            return false;
+        }
+        String browserName = ((HasCapabilities) raw).getCapabilities().getBrowserName();
+        return browserName.equals("chrome") || browserName.equals("MicrosoftEdge") || browserName.equals("msedge");
+    }
+
+    /**
+     * Number of browsers launched and their average launch time, for the active profile.
+     */
+    public static String launchSummary() {
+        long count = launches.get();
+        long averageMillis = count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(launchNanosTotal.get() / count);
+        return "profile=" + BrowserProfile.fromConfig() + ", launches=" + count + ", avgLaunch=" + averageMillis + "ms";
+    }
 }
@@ -0,0 +1,490 @@
+package CoreFramework.actions;
+
+import CoreFramework.config.ConfigManager;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * DriverPool keeps launched browser sessions alive between tests.
+ *
+ * Behavior:
+ *  - borrow(): returns a healthy idle session, or launches a new one while under max size
+ *  - release(driver): resets the session within driverPoolHealthCheckTimeout (evicts it otherwise) and
+ *    returns it: the test's tabs are replaced by a fresh about:blank tab (new session storage), cookies
+ *    and local storage are cleared; on CDP sessions for every origin in the tabs' history, elsewhere
+ *    only for the page each tab ended on
+ *  - evict(driver): quits the session and frees its slot
+ *  - prewarm(): launches sessions in the background so the next borrow() finds one ready
+ *  - shutdown(): quits every idle session (call once at suite end)
+ *
+ * Sessions that fail a health check or a reset are evicted instead of being reused.
+ * Pre-warming keeps up to driverPrewarmCount spare sessions, within the max size and within
+ * the free physical memory (driverSessionMemoryMb per browser).
+ */
+public class DriverPool {
+
+    // How long shutdown() waits for a browser launch that is already in progress
+    private static final long PREWARM_SHUTDOWN_SECONDS = 30;
+
+    // What release() clears per origin on CDP sessions (cookies are cleared for the whole profile)
+    private static final String CLEARED_STORAGE_TYPES =
+            "local_storage,indexeddb,websql,cache_storage,service_workers,file_systems";
+
+    private final Supplier<WebDriver> launcher;
+    private final int maxSize;
+    private final long borrowTimeoutSeconds;
+    private final long healthCheckTimeoutSeconds;
+    private final int prewarmCount;
+    private final long sessionMemoryBytes;
+
+    private final BlockingDeque<WebDriver> idle = new LinkedBlockingDeque<>();
+    private final Set<WebDriver> leased = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger liveSessions = new AtomicInteger();
+    private final AtomicInteger prewarmsInFlight = new AtomicInteger();
+    private volatile boolean closed;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong launchNanosTotal = new AtomicLong();
+    private final AtomicLong prewarmed = new AtomicLong();
+
+    // Health checks run here so a hung browser cannot block the test thread forever
+    private final ExecutorService healthChecker = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "driver-pool-health");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Background launches; one at a time so pre-warming never competes with itself for CPU.
+    // A ThreadPoolExecutor (not newSingleThreadExecutor) so shutdown() can take back the queued launches.
+    private final ThreadPoolExecutor prewarmer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), r -> {
+        Thread t = new Thread(r, "driver-pool-prewarm");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public DriverPool(Supplier<WebDriver> launcher) {
+        this(launcher,
+                ConfigManager.getDriverPoolMaxSize(),
+                ConfigManager.getDriverPoolBorrowTimeout(),
+                ConfigManager.getDriverPoolHealthCheckTimeout(),
+                ConfigManager.getDriverPrewarmCount(),
+                ConfigManager.getDriverSessionMemoryMb());
+    }
+
+    public DriverPool(Supplier<WebDriver> launcher, int maxSize,
+                      long borrowTimeoutSeconds, long healthCheckTimeoutSeconds,
+                      int prewarmCount, long sessionMemoryMb) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Driver pool max size must be at least 1, was " + maxSize);
+        }
+        this.launcher = launcher;
+        this.maxSize = maxSize;
+        this.borrowTimeoutSeconds = borrowTimeoutSeconds;
+        this.healthCheckTimeoutSeconds = healthCheckTimeoutSeconds;
+        this.prewarmCount = Math.max(0, prewarmCount);
+        this.sessionMemoryBytes = sessionMemoryMb * 1024 * 1024;
+    }
+
+    /**
+     * Borrow a session for the calling test.
+     * Blocks up to driverPoolBorrowTimeout seconds when every slot is leased.
+     */
+    public WebDriver borrow() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(borrowTimeoutSeconds);
+
+        while (true) {
+            WebDriver candidate = idle.pollFirst();
+            if (candidate != null) {
+                if (isHealthy(candidate)) {
+                    hits.incrementAndGet();
+                    leased.add(candidate);
+                    prewarm();
+                    return candidate;
+                }
+                discard(candidate);
+                prewarm();
+                continue;
+            }
+
+            // A background launch is already on its way; waiting for it beats a second cold launch
+            if (prewarmsInFlight.get() == 0 && tryReserveSlot()) {
+                WebDriver launched = launch();
+                prewarm();
+                return launched;
+            }
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new IllegalStateException("No WebDriver session became available within "
+                        + borrowTimeoutSeconds + "s (pool max size " + maxSize + ").");
+            }
+            try {
+                // Wait in short slices so a slot freed by an eviction is noticed too
+                long slice = Math.min(remaining, TimeUnit.SECONDS.toNanos(1));
+                candidate = idle.pollFirst(slice, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a WebDriver session.", e);
+            }
+            if (candidate != null) {
+                // Put it back at the head so the health check above handles it uniformly
+                idle.offerFirst(candidate);
+            }
+        }
+    }
+
+    /**
+     * Return a session to the pool after resetting it.
+     * Sessions that cannot be reset are evicted.
+     */
+    public void release(WebDriver driver) {
+        if (driver == null || !leased.remove(driver)) {
+            return;
+        }
+        if (closed) {
+            discard(driver);
+            return;
+        }
+        // On the health checker, so a hung session cannot hold up the test thread
+        Future<Boolean> resetting;
+        try {
+            resetting = healthChecker.submit(() -> reset(driver));
+        } catch (RejectedExecutionException e) {
+            // Shut down meanwhile
+            discard(driver);
+            return;
+        }
+        try {
+            if (resetting.get(healthCheckTimeoutSeconds, TimeUnit.SECONDS)) {
+                idle.offerFirst(driver);
+            } else {
+                discard(driver);
+            }
+        } catch (TimeoutException e) {
+            resetting.cancel(true);
+            System.out.println("[DriverPool] Session reset took over " + healthCheckTimeoutSeconds
+                    + "s, evicting it.");
+            discardInBackground(driver);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            discardInBackground(driver);
+        } catch (ExecutionException e) {
+            discard(driver);
+        }
+    }
+
+    /**
+     * Quit a leased session without returning it (e.g. after the browser crashed).
+     */
+    public void evict(WebDriver driver) {
+        if (driver != null && leased.remove(driver)) {
+            discard(driver);
+        }
+    }
+
+    /**
+     * Launch sessions in the background until driverPrewarmCount spares are idle or launching.
+     * Stops early when the pool is full or free memory would drop below one session's budget.
+     * borrow() calls this every time; when enough spares are already idle or launching it returns
+     * without doing anything (no memory check, no executor hand-off).
+     */
+    public void prewarm() {
+        while (!closed && idle.size() + prewarmsInFlight.get() < prewarmCount) {
+            if (!hasMemoryForAnotherSession() || !tryReserveSlot()) {
+                return;
+            }
+            prewarmsInFlight.incrementAndGet();
+            try {
+                prewarmer.submit(this::launchInBackground);
+            } catch (RuntimeException e) {
+                // Executor already shut down
+                prewarmsInFlight.decrementAndGet();
+                liveSessions.decrementAndGet();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Quit every idle session and stop pre-warming.
+     * Waits up to PREWARM_SHUTDOWN_SECONDS for a background launch that is already running (it is not
+     * interrupted, so a half-open session cannot leave an orphan browser); a session that comes up after
+     * that is quit by launchInBackground. Sessions still leased are quit when they are released afterwards.
+     */
+    public void shutdown() {
+        closed = true;
+        prewarmer.shutdown();
+        // Queued launches never start; give back the slots they had reserved
+        List<Runnable> queued = new ArrayList<>();
+        prewarmer.getQueue().drainTo(queued);
+        for (Runnable ignored : queued) {
+            prewarmsInFlight.decrementAndGet();
+            liveSessions.decrementAndGet();
+        }
+        try {
+            if (!prewarmer.awaitTermination(PREWARM_SHUTDOWN_SECONDS, TimeUnit.SECONDS)) {
+                System.out.println("[DriverPool] A background launch is still running; it will be quit when it finishes.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Drained after the wait, so a session a background launch added meanwhile is quit too
+        List<WebDriver> drained = new ArrayList<>();
+        idle.drainTo(drained);
+        for (WebDriver driver : drained) {
+            quitQuietly(driver);
+            liveSessions.decrementAndGet();
+        }
+        healthChecker.shutdownNow();
+        System.out.println("[DriverPool] " + statsSummary());
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getPrewarmed() {
+        return prewarmed.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Estimated launch time saved: every pool hit skipped one average browser launch.
+     */
+    public Duration getLaunchTimeSaved() {
+        long launches = misses.get();
+        if (launches == 0) {
+            return Duration.ZERO;
+        }
+        long averageLaunchNanos = launchNanosTotal.get() / launches;
+        return Duration.ofNanos(averageLaunchNanos * hits.get());
+    }
+
+    public String statsSummary() {
+        return "hits=" + hits.get()
+                + ", misses=" + misses.get()
+                + ", prewarmed=" + prewarmed.get()
+                + ", evictions=" + evictions.get()
+                + ", live=" + liveSessions.get()
+                + ", launchTimeSaved=" + getLaunchTimeSaved().toMillis() + "ms";
+    }
+
+    // ================= INTERNAL IMPLEMENTATION =================
+
+    private boolean tryReserveSlot() {
+        while (true) {
+            int current = liveSessions.get();
+            if (current >= maxSize) {
+                return false;
+            }
+            if (liveSessions.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private WebDriver launch() {
+        long start = System.nanoTime();
+        try {
+            WebDriver driver = launcher.get();
+            launchNanosTotal.addAndGet(System.nanoTime() - start);
+            misses.incrementAndGet();
+            leased.add(driver);
+            return driver;
+        } catch (RuntimeException e) {
+            liveSessions.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void launchInBackground() {
+        if (closed) {
+            // Picked up while shutdown() was taking back the queue
+            prewarmsInFlight.decrementAndGet();
+            liveSessions.decrementAndGet();
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            WebDriver driver = launcher.get();
+            launchNanosTotal.addAndGet(System.nanoTime() - start);
+            misses.incrementAndGet();
+            prewarmed.incrementAndGet();
+            idle.offerLast(driver);
+            // Checked after the offer: either shutdown() drains it or this thread takes it back and quits it
+            if (closed && idle.remove(driver)) {
+                quitQuietly(driver);
+                liveSessions.decrementAndGet();
+            }
+        } catch (RuntimeException e) {
+            liveSessions.decrementAndGet();
+            System.out.println("[DriverPool] Background launch failed: " + e.getMessage());
+        } finally {
+            prewarmsInFlight.decrementAndGet();
+        }
+    }
+
+    private boolean hasMemoryForAnotherSession() {
+        if (sessionMemoryBytes <= 0) {
+            return true;
+        }
+        java.lang.management.OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            long free = ((com.sun.management.OperatingSystemMXBean) os).getFreeMemorySize();
+            if (free < sessionMemoryBytes) {
+                System.out.println("[DriverPool] Skipping pre-warm: " + (free / (1024 * 1024))
+                        + " MB free, " + (sessionMemoryBytes / (1024 * 1024)) + " MB needed per session.");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isHealthy(WebDriver driver) {
+        Future<?> probe = healthChecker.submit(() -> {
+            driver.getWindowHandles();
+            if (driver instanceof HasCapabilities) {
+                ((HasCapabilities) driver).getCapabilities();
+            }
+        });
+        try {
+            probe.get(healthCheckTimeoutSeconds, TimeUnit.SECONDS);
+            return true;
+        } catch (Exception e) {
+            probe.cancel(true);
+            System.out.println("[DriverPool] Evicting unhealthy session: " + e);
+            return false;
+        }
+    }
+
+    private boolean reset(WebDriver driver) {
+        try {
+            boolean cdp = driver instanceof HasCdp;
+            Set<String> origins = new LinkedHashSet<>();
+            List<String> handles = new ArrayList<>(driver.getWindowHandles());
+            // A new tab starts at about:blank with empty session storage for every origin
+            String fresh = driver.switchTo().newWindow(WindowType.TAB).getWindowHandle();
+            for (String handle : handles) {
+                driver.switchTo().window(handle);
+                if (cdp) {
+                    collectOrigins((HasCdp) driver, origins);
+                }
+                // Without CDP, storage and cookies can only be cleared for the page the tab is on
+                try {
+                    ((JavascriptExecutor) driver).executeScript("try { window.localStorage.clear(); } catch (e) {}");
+                } catch (Exception ignored) {
+                    // about:blank / data: pages have no storage
+                }
+                driver.manage().deleteAllCookies();
+                driver.close();
+            }
+            driver.switchTo().window(fresh);
+
+            if (cdp) {
+                HasCdp devTools = (HasCdp) driver;
+                // deleteAllCookies() only sees the current domain; CDP clears the whole profile
+                devTools.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+                for (String origin : origins) {
+                    devTools.executeCdpCommand("Storage.clearDataForOrigin",
+                            Map.of("origin", origin, "storageTypes", CLEARED_STORAGE_TYPES));
+                }
+            }
+
+            // In case the test changed it; pooled sessions run with no implicit wait, like new ones
+            driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+            return true;
+        } catch (Exception e) {
+            System.out.println("[DriverPool] Failed to reset session, evicting it: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Origins of every page in the current tab's history (http / https only).
+     */
+    private static void collectOrigins(HasCdp driver, Set<String> origins) {
+        Object entries = driver.executeCdpCommand("Page.getNavigationHistory", Map.of()).get("entries");
+        if (!(entries instanceof List)) {
+            return;
+        }
+        for (Object entry : (List<?>) entries) {
+            Object url = entry instanceof Map ? ((Map<?, ?>) entry).get("url") : null;
+            if (url == null) {
+                continue;
+            }
+            try {
+                URI uri = URI.create(url.toString());
+                if ("http".equals(uri.getScheme()) || "https".equals(uri.getScheme())) {
+                    origins.add(uri.getScheme() + "://" + uri.getHost()
+                            + (uri.getPort() < 0 ? "" : ":" + uri.getPort()));
+                }
+            } catch (IllegalArgumentException ignored) {
+                // Not a URL we can clear storage for
+            }
+        }
+    }
+
+    private void discard(WebDriver driver) {
+        evictions.incrementAndGet();
+        liveSessions.decrementAndGet();
+        quitQuietly(driver);
+    }
+
+    /**
+     * Evict a session that stopped answering; quit() could hang as well, so it runs off the test thread.
+     */
+    private void discardInBackground(WebDriver driver) {
+        evictions.incrementAndGet();
+        liveSessions.decrementAndGet();
+        try {
+            healthChecker.execute(() -> quitQuietly(driver));
+        } catch (RejectedExecutionException e) {
+            quitQuietly(driver);
+        }
+    }
+
+    private void quitQuietly(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception ignored) {
+            // Session is already gone
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package CoreFramework.actions;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Element cache for one page object (one UIActions instance) and its WebDriver session.
+ *
+ * Elements are keyed by (SelectorType, locator). A cached element is not re-checked on lookup;
+ * the next command sent to it validates it for free. When that command fails with
+ * StaleElementReferenceException the entry is invalidated and re-resolved.
+ * UIActions clears the whole cache on navigation.
+ *
+ * Not thread-safe: a page object belongs to the test thread that created it.
+ */
+public class ElementCache {
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong staleEvictions = new AtomicLong();
+
+    private final WebDriver driver;
+    private final Map<UIActions.SelectorType, Map<String, WebElement>> elements =
+            new EnumMap<>(UIActions.SelectorType.class);
+
+    public ElementCache(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Lookup for the wait engine: cached element first, findElement on a miss,
+     * and invalidation when the element turns out to be stale.
+     * Sessions run with an implicit wait of 0, so a miss never blocks the wait engine's poll.
+     */
+    public WaitEngine.ElementLookup lookup(UIActions.SelectorType selector, String locator, By by) {
+        return new WaitEngine.ElementLookup() {
+            // The wait engine calls find() on every poll; only the first call is a logical lookup
+            private boolean counted;
+
+            @Override
+            public WebElement find() {
+                WebElement element = get(selector, locator, by, !counted);
+                counted = true;
+                return element;
+            }
+
+            @Override
+            public void invalidate() {
+                ElementCache.this.invalidate(selector, locator);
+            }
+
+            @Override
+            public String toString() {
+                return by.toString();
+            }
+        };
+    }
+
+    public WebElement get(UIActions.SelectorType selector, String locator, By by) {
+        return get(selector, locator, by, true);
+    }
+
+    public void invalidate(UIActions.SelectorType selector, String locator) {
+        Map<String, WebElement> bySelector = elements.get(selector);
+        if (bySelector != null && bySelector.remove(locator) != null) {
+            staleEvictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Drop every cached element, e.g. after navigating to another page.
+     */
+    public void clear() {
+        elements.clear();
+    }
+
+    /**
+     * Run-wide hit rate; every hit is one findElement round-trip that was not sent.
+     */
+    public static String metricsSummary() {
+        long h = hits.get();
+        long m = misses.get();
+        long total = h + m;
+        long hitRate = total == 0 ? 0 : (h * 100) / total;
+        return "lookups=" + total + ", hits=" + h + " (" + hitRate + "%), misses=" + m
+                + ", staleReResolutions=" + staleEvictions.get() + ", roundTripsSaved=" + h;
+    }
+
+    // ================= INTERNAL IMPLEMENTATION =================
+
+    /**
+     * count=false for repeated polls of the same lookup, so a wait that polls ten times is one hit, not ten.
+     */
+    private WebElement get(UIActions.SelectorType selector, String locator, By by, boolean count) {
+        Map<String, WebElement> bySelector = elements.computeIfAbsent(selector, k -> new HashMap<>());
+        WebElement element = bySelector.get(locator);
+        if (element != null) {
+            if (count) {
+                hits.incrementAndGet();
+            }
+            return element;
+        }
+        if (count) {
+            misses.incrementAndGet();
+        }
+        element = driver.findElement(by);
+        bySelector.put(locator, element);
+        return element;
+    }
+}
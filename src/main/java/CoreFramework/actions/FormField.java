@@ -0,0 +1,54 @@
+package CoreFramework.actions;
+
+/**
+ * One field of a batched form operation (see UIActions.setTexts / getTexts).
+ *
+ *  - FormField.of(selector, locator): a field to read
+ *  - FormField.of(selector, locator, value): a field to fill
+ *  - .withSendKeys(): fill this field with real sendKeys instead of the batched script
+ */
+public class FormField {
+
+    private final UIActions.SelectorType selector;
+    private final String locator;
+    private final String value;
+    private final boolean sendKeys;
+
+    private FormField(UIActions.SelectorType selector, String locator, String value, boolean sendKeys) {
+        this.selector = selector;
+        this.locator = locator;
+        this.value = value;
+        this.sendKeys = sendKeys;
+    }
+
+    public static FormField of(UIActions.SelectorType selector, String locator) {
+        return new FormField(selector, locator, null, false);
+    }
+
+    public static FormField of(UIActions.SelectorType selector, String locator, String value) {
+        return new FormField(selector, locator, value == null ? "" : value, false);
+    }
+
+    /**
+     * Same field, but filled through WebDriver sendKeys (e.g. inputs with key handlers or masks).
+     */
+    public FormField withSendKeys() {
+        return new FormField(selector, locator, value, true);
+    }
+
+    public UIActions.SelectorType getSelector() {
+        return selector;
+    }
+
+    public String getLocator() {
+        return locator;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public boolean usesSendKeys() {
+        return sendKeys;
+    }
+}
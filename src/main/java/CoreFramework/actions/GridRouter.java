@@ -0,0 +1,228 @@
+package CoreFramework.actions;
+
+import CoreFramework.config.ConfigManager;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * GridRouter spreads RemoteWebDriver sessions over a list of Grid / standalone node endpoints.
+ *
+ * Behavior:
+ *  - createSession(caps): picks the least-loaded node that still has capacity and starts a session there
+ *  - if session creation fails, the node is benched for a short time and the next node is tried
+ *  - quitting a routed session frees its slot on the node
+ *  - sessions are augmented (Augmenter) with what the node advertises, e.g. HasDevTools for a Chromium node
+ *    with se:cdp, so NetworkShaper, ReadyNavigator and ScreencastRecorder work remotely as well
+ *
+ * Nodes and capacity come from gridNodes / gridNodeCapacity in config.properties.
+ */
+public class GridRouter {
+
+    private static final long FAILED_NODE_BACKOFF_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private final List<Node> nodes;
+    private final int maxAttempts;
+
+    public GridRouter() {
+        this(parseNodes(ConfigManager.getGridNodes()),
+                ConfigManager.getGridNodeCapacity(),
+                ConfigManager.getGridSessionAttempts());
+    }
+
+    public GridRouter(List<URL> endpoints, int capacityPerNode, int maxAttempts) {
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("At least one grid node is required (gridNodes).");
+        }
+        List<Node> list = new ArrayList<>();
+        for (URL endpoint : endpoints) {
+            list.add(new Node(endpoint, capacityPerNode));
+        }
+        this.nodes = Collections.unmodifiableList(list);
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    /**
+     * Start a session on the least-loaded node, retrying on other nodes if creation fails.
+     */
+    public WebDriver createSession(Capabilities capabilities) {
+        RuntimeException lastError = null;
+        List<Node> tried = new ArrayList<>();
+
+        for (int attempt = 0; attempt < maxAttempts; attempt++) {
+            Node node = reserveLeastLoaded(tried);
+            if (node == null) {
+                break;
+            }
+            tried.add(node);
+            try {
+                return routed(node, new RemoteWebDriver(node.endpoint, capabilities));
+            } catch (RuntimeException e) {
+                node.release();
+                node.benchedUntil = System.currentTimeMillis() + FAILED_NODE_BACKOFF_MILLIS;
+                lastError = e;
+                System.out.println("[GridRouter] Session creation failed on " + node.endpoint
+                        + ", trying another node: " + e.getMessage());
+            }
+        }
+
+        throw new IllegalStateException("Could not create a remote session on any grid node "
+                + "(tried " + tried.size() + ", " + loadSummary() + ").", lastError);
+    }
+
+    /**
+     * Active sessions per node, e.g. "http://a:4444=2/4, http://b:4444=1/4".
+     */
+    public String loadSummary() {
+        StringBuilder sb = new StringBuilder();
+        for (Node node : nodes) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(node.endpoint).append('=').append(node.active.get()).append('/').append(node.capacity);
+        }
+        return sb.toString();
+    }
+
+    public int getActiveSessions(URL endpoint) {
+        for (Node node : nodes) {
+            if (node.endpoint.equals(endpoint)) {
+                return node.active.get();
+            }
+        }
+        return 0;
+    }
+
+    // ================= INTERNAL IMPLEMENTATION =================
+
+    private Node reserveLeastLoaded(List<Node> exclude) {
+        long now = System.currentTimeMillis();
+        List<Node> candidates = new ArrayList<>();
+        for (Node node : nodes) {
+            if (!exclude.contains(node) && node.benchedUntil <= now) {
+                candidates.add(node);
+            }
+        }
+        candidates.sort(Comparator.comparingDouble(Node::loadFactor));
+
+        for (Node node : candidates) {
+            if (node.tryReserve()) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Augment the new session and have its quit() free the node slot.
+     */
+    private static WebDriver routed(Node node, RemoteWebDriver session) {
+        WebDriver augmented;
+        try {
+            augmented = new Augmenter().augment(session);
+        } catch (RuntimeException e) {
+            // The session itself works; only the CDP / BiDi based features will be skipped
+            System.out.println("[GridRouter] Could not augment remote session: " + e.getMessage());
+            augmented = session;
+        }
+        return new EventFiringDecorator<>(new SlotRelease(node)).decorate(augmented);
+    }
+
+    private static List<URL> parseNodes(String raw) {
+        List<URL> urls = new ArrayList<>();
+        if (raw == null) {
+            return urls;
+        }
+        for (String part : raw.split(",")) {
+            String trimmed = part.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            try {
+                urls.add(new URL(trimmed));
+            } catch (MalformedURLException e) {
+                throw new IllegalArgumentException("Invalid grid node URL: " + trimmed, e);
+            }
+        }
+        return urls;
+    }
+
+    private static final class Node {
+        private final URL endpoint;
+        private final int capacity;
+        private final AtomicInteger active = new AtomicInteger();
+        private volatile long benchedUntil;
+
+        private Node(URL endpoint, int capacity) {
+            this.endpoint = endpoint;
+            this.capacity = capacity;
+        }
+
+        private double loadFactor() {
+            return (double) active.get() / capacity;
+        }
+
+        private boolean tryReserve() {
+            while (true) {
+                int current = active.get();
+                if (current >= capacity) {
+                    return false;
+                }
+                if (active.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        private void release() {
+            active.decrementAndGet();
+        }
+    }
+
+    /**
+     * Gives the node slot back when the session is quit (also when the quit command itself fails).
+     * A listener rather than a RemoteWebDriver subclass, so the session can be augmented; public because
+     * EventFiringDecorator calls listener methods through reflection.
+     */
+    public static final class SlotRelease implements WebDriverListener {
+        private final Node node;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private SlotRelease(Node node) {
+            this.node = node;
+        }
+
+        @Override
+        public void afterQuit(WebDriver driver) {
+            release();
+        }
+
+        @Override
+        public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+            if (method.getName().equals("quit")) {
+                release();
+            }
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                node.release();
+            }
+        }
+    }
+}
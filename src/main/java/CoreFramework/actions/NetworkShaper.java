@@ -0,0 +1,352 @@
+package CoreFramework.actions;
+
+import CoreFramework.config.ConfigManager;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.bidi.HasBiDi;
+import org.openqa.selenium.bidi.module.Network;
+import org.openqa.selenium.bidi.network.AddInterceptParameters;
+import org.openqa.selenium.bidi.network.ContinueRequestParameters;
+import org.openqa.selenium.bidi.network.InterceptPhase;
+import org.openqa.selenium.bidi.network.UrlPattern;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * NetworkShaper blocks third-party requests and optionally throttles the connection of a browser session.
+ *
+ * Behavior:
+ *  - Chromium (Chrome / Edge, local or augmented remote): CDP Network.setBlockedURLs for networkBlocklist; when networkAllowlist is set,
+ *    Fetch interception pauses only blocklisted requests and lets allowlisted ones through
+ *  - Firefox: WebDriver BiDi network interception with the same block / allow rules (no throttling)
+ *  - networkThrottle applies Network.emulateNetworkConditions (slow3g, fast3g, 4g or custom)
+ *  - blocked requests and an estimate of the bytes they would have loaded are counted per navigation
+ *    (see startNavigation / navigationSummary) and for the whole run (metricsSummary)
+ *
+ * Patterns use * as wildcard, e.g. *google-analytics.com*, *://fonts.gstatic.com/*
+ * Over BiDi, *://host/* patterns let the browser pause only requests to those hosts; a pattern with a
+ * wildcard in the host makes it pause every request so the rules can be checked.
+ */
+public class NetworkShaper {
+
+    private static final Map<WebDriver, SessionStats> SESSIONS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final AtomicLong totalBlocked = new AtomicLong();
+    private static final AtomicLong totalBytesSaved = new AtomicLong();
+    private static final AtomicLong navigations = new AtomicLong();
+    private static final AtomicBoolean unsupportedLogged = new AtomicBoolean();
+    private static final AtomicBoolean interceptAllLogged = new AtomicBoolean();
+
+    private NetworkShaper() {
+    }
+
+    /**
+     * Whether any blocking or throttling is configured; DriverFactory only calls apply() when it is.
+     */
+    public static boolean isConfigured() {
+        return !ConfigManager.getNetworkBlocklist().isEmpty() || !throttleProfile().equals("none");
+    }
+
+    /**
+     * Install blocking / throttling on a freshly created driver (before CommandMetrics decorates it).
+     */
+    public static void apply(WebDriver session) {
+        List<String> blocklist = ConfigManager.getNetworkBlocklist();
+        List<String> allowlist = ConfigManager.getNetworkAllowlist();
+        // Remote sessions come wrapped by GridRouter
+        WebDriver driver = unwrap(session);
+        try {
+            if (DriverFactory.hasCdp(driver)) {
+                applyCdp(driver, ((HasDevTools) driver).getDevTools(), blocklist, allowlist);
+            } else if (driver instanceof HasBiDi && ((HasBiDi) driver).maybeGetBiDi().isPresent()) {
+                applyBiDi(driver, blocklist, allowlist);
+            } else if (unsupportedLogged.compareAndSet(false, true)) {
+                System.out.println("[NetworkShaper] " + driver.getClass().getSimpleName()
+                        + " has neither CDP nor BiDi; network blocking / throttling is skipped.");
+            }
+        } catch (RuntimeException e) {
+            // A missing optimisation must not fail the test run
+            System.out.println("[NetworkShaper] Could not apply network rules: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reset the per-navigation counters of this driver's session.
+     */
+    public static void startNavigation(WebDriver driver) {
+        SessionStats stats = SESSIONS.get(unwrap(driver));
+        if (stats != null) {
+            stats.navigationBlocked.set(0);
+            stats.navigationBytesSaved.set(0);
+        }
+    }
+
+    /**
+     * Blocked requests since startNavigation, e.g. "blocked=7, bytesSaved~=412KB", or null if not shaped.
+     */
+    public static String navigationSummary(WebDriver driver) {
+        SessionStats stats = SESSIONS.get(unwrap(driver));
+        if (stats == null) {
+            return null;
+        }
+        navigations.incrementAndGet();
+        return "blocked=" + stats.navigationBlocked.get()
+                + ", bytesSaved~=" + stats.navigationBytesSaved.get() / 1024 + "KB";
+    }
+
+    public static String metricsSummary() {
+        return "navigations=" + navigations.get()
+                + ", blocked=" + totalBlocked.get()
+                + ", bytesSaved~=" + totalBytesSaved.get() / 1024 + "KB"
+                + ", throttle=" + throttleProfile();
+    }
+
+    // ================= INTERNAL IMPLEMENTATION =================
+
+    private static void applyCdp(WebDriver driver, DevTools devTools, List<String> blocklist, List<String> allowlist) {
+        SessionStats stats = new SessionStats();
+        devTools.createSessionIfThereIsNotOne();
+        devTools.send(new Command<>("Network.enable", Map.of()));
+
+        devTools.addListener(mapEvent("Network.loadingFinished"), event -> {
+            Object length = event.get("encodedDataLength");
+            if (length instanceof Number) {
+                stats.loaded(((Number) length).longValue());
+            }
+        });
+        devTools.addListener(mapEvent("Network.loadingFailed"), event -> {
+            Object errorText = event.get("errorText");
+            if (event.get("blockedReason") != null
+                    || (errorText != null && errorText.toString().contains("ERR_BLOCKED_BY_CLIENT"))) {
+                stats.blocked();
+            }
+        });
+
+        if (!blocklist.isEmpty()) {
+            if (allowlist.isEmpty()) {
+                // Browser-side blocking, no round-trip per request
+                devTools.send(new Command<>("Network.setBlockedURLs", Map.of("urls", blocklist)));
+            } else {
+                // Pause only blocklisted requests and decide here, so allowlisted URLs still load
+                List<Map<String, Object>> patterns = new ArrayList<>();
+                for (String pattern : blocklist) {
+                    patterns.add(Map.of("urlPattern", pattern, "requestStage", "Request"));
+                }
+                List<Pattern> allowed = compile(allowlist);
+                devTools.addListener(mapEvent("Fetch.requestPaused"), event -> {
+                    String requestId = (String) event.get("requestId");
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> request = (Map<String, Object>) event.get("request");
+                    String url = request == null ? "" : String.valueOf(request.get("url"));
+                    if (matchesAny(url, allowed)) {
+                        devTools.send(new Command<>("Fetch.continueRequest", Map.of("requestId", requestId)));
+                    } else {
+                        devTools.send(new Command<>("Fetch.failRequest",
+                                Map.of("requestId", requestId, "errorReason", "BlockedByClient")));
+                    }
+                });
+                devTools.send(new Command<>("Fetch.enable", Map.of("patterns", patterns)));
+            }
+        }
+
+        Map<String, Object> conditions = throttleConditions();
+        if (conditions != null) {
+            devTools.send(new Command<>("Network.emulateNetworkConditions", conditions));
+        }
+
+        SESSIONS.put(driver, stats);
+        System.out.println("[NetworkShaper] CDP rules applied: blocklist=" + blocklist.size()
+                + ", allowlist=" + allowlist.size() + ", throttle=" + throttleProfile());
+    }
+
+    private static void applyBiDi(WebDriver driver, List<String> blocklist, List<String> allowlist) {
+        if (!throttleProfile().equals("none")) {
+            System.out.println("[NetworkShaper] Throttling is not available over BiDi; only blocking is applied.");
+        }
+        SessionStats stats = new SessionStats();
+        Network network = new Network(driver);
+        network.onResponseCompleted(response -> stats.loaded(response.getResponseData().getBytesReceived()));
+
+        if (!blocklist.isEmpty()) {
+            List<Pattern> blocked = compile(blocklist);
+            List<Pattern> allowed = compile(allowlist);
+            AddInterceptParameters intercept = new AddInterceptParameters(InterceptPhase.BEFORE_REQUEST_SENT);
+            List<UrlPattern> hosts = interceptHosts(blocklist);
+            if (hosts != null) {
+                // Only requests to blocklisted hosts are paused; everything else never waits for this client
+                intercept.urlPatterns(hosts);
+            } else if (interceptAllLogged.compareAndSet(false, true)) {
+                System.out.println("[NetworkShaper] networkBlocklist has patterns without a fixed host (e.g. *tracker*);"
+                        + " BiDi pauses every request to check it. Use *://host/* patterns to pause only those hosts.");
+            }
+            network.addIntercept(intercept);
+            network.onBeforeRequestSent(request -> {
+                if (!request.isBlocked()) {
+                    return;
+                }
+                String url = request.getRequest().getUrl();
+                String requestId = request.getRequest().getRequestId();
+                if (matchesAny(url, blocked) && !matchesAny(url, allowed)) {
+                    network.failRequest(requestId);
+                    stats.blocked();
+                } else {
+                    network.continueRequest(new ContinueRequestParameters(requestId));
+                }
+            });
+        }
+
+        SESSIONS.put(driver, stats);
+        System.out.println("[NetworkShaper] BiDi rules applied: blocklist=" + blocklist.size()
+                + ", allowlist=" + allowlist.size());
+    }
+
+    /**
+     * BiDi intercept patterns for the blocklist: one hostname pattern per entry like *://fonts.gstatic.com/*,
+     * or null when an entry has a wildcard in its host (BiDi patterns match hosts exactly). The patterns only
+     * narrow what is paused; the handler still applies the full block / allow rules.
+     */
+    private static List<UrlPattern> interceptHosts(List<String> blocklist) {
+        List<UrlPattern> patterns = new ArrayList<>();
+        for (String glob : blocklist) {
+            int scheme = glob.indexOf("://");
+            if (scheme < 0) {
+                return null;
+            }
+            String rest = glob.substring(scheme + 3);
+            int end = rest.length();
+            for (char c : new char[]{'/', ':', '?', '#'}) {
+                int index = rest.indexOf(c);
+                if (index >= 0) {
+                    end = Math.min(end, index);
+                }
+            }
+            String host = rest.substring(0, end);
+            if (host.isEmpty() || host.contains("*")) {
+                return null;
+            }
+            patterns.add(new UrlPattern().hostname(host));
+        }
+        return patterns;
+    }
+
+    private static Event<Map<String, Object>> mapEvent(String method) {
+        return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+    }
+
+    private static String throttleProfile() {
+        return ConfigManager.getNetworkThrottle().toLowerCase();
+    }
+
+    /**
+     * Network.emulateNetworkConditions parameters (throughput in bytes/s), or null for no throttling.
+     */
+    private static Map<String, Object> throttleConditions() {
+        long latencyMs;
+        long downloadKbps;
+        long uploadKbps;
+        switch (throttleProfile()) {
+            case "none":
+                return null;
+            case "slow3g":
+                latencyMs = 400;
+                downloadKbps = 400;
+                uploadKbps = 400;
+                break;
+            case "fast3g":
+                latencyMs = 150;
+                downloadKbps = 1600;
+                uploadKbps = 750;
+                break;
+            case "4g":
+                latencyMs = 20;
+                downloadKbps = 4000;
+                uploadKbps = 3000;
+                break;
+            case "custom":
+                latencyMs = ConfigManager.getNetworkLatencyMs();
+                downloadKbps = ConfigManager.getNetworkDownloadKbps();
+                uploadKbps = ConfigManager.getNetworkUploadKbps();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown networkThrottle: " + throttleProfile()
+                        + " (use none, slow3g, fast3g, 4g or custom)");
+        }
+        Map<String, Object> conditions = new HashMap<>();
+        conditions.put("offline", false);
+        conditions.put("latency", latencyMs);
+        conditions.put("downloadThroughput", downloadKbps * 1000 / 8);
+        conditions.put("uploadThroughput", uploadKbps * 1000 / 8);
+        return conditions;
+    }
+
+    private static List<Pattern> compile(List<String> globs) {
+        List<Pattern> patterns = new ArrayList<>();
+        for (String glob : globs) {
+            StringBuilder regex = new StringBuilder();
+            for (String part : glob.split("\\*", -1)) {
+                if (regex.length() > 0) {
+                    regex.append(".*");
+                }
+                regex.append(Pattern.quote(part));
+            }
+            patterns.add(Pattern.compile(regex.toString()));
+        }
+        return patterns;
+    }
+
+    private static boolean matchesAny(String url, List<Pattern> patterns) {
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(url).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static WebDriver unwrap(WebDriver driver) {
+        while (driver instanceof WrapsDriver) {
+            driver = ((WrapsDriver) driver).getWrappedDriver();
+        }
+        return driver;
+    }
+
+    /**
+     * Counters for one browser session. Events arrive on the CDP / BiDi connection thread.
+     */
+    private static final class SessionStats {
+        private final AtomicLong loadedRequests = new AtomicLong();
+        private final AtomicLong loadedBytes = new AtomicLong();
+        private final AtomicLong navigationBlocked = new AtomicLong();
+        private final AtomicLong navigationBytesSaved = new AtomicLong();
+
+        private void loaded(long bytes) {
+            loadedRequests.incrementAndGet();
+            loadedBytes.addAndGet(bytes);
+        }
+
+        /**
+         * Blocked responses never arrive, so their size is estimated as the session's average response.
+         */
+        private void blocked() {
+            long requests = loadedRequests.get();
+            long estimate = requests == 0 ? 0 : loadedBytes.get() / requests;
+            navigationBlocked.incrementAndGet();
+            navigationBytesSaved.addAndGet(estimate);
+            totalBlocked.incrementAndGet();
+            totalBytesSaved.addAndGet(estimate);
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package CoreFramework.actions;
+
+import CoreFramework.config.ConfigManager;
+import CoreFramework.utils.LatencyHistogram;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ReadyNavigator navigates and returns as soon as the app is ready, instead of waiting for the load event.
+ *
+ * Behavior (navigationReadyMode in config.properties):
+ *  - load: plain driver.navigate().to(url), the old behavior (not handled here)
+ *  - networkIdle: no XHR / fetch in flight for navigationIdleMs
+ *  - domStable: no DOM mutation for navigationIdleMs
+ *  - selector: navigationReadySelector (CSS) is present
+ *
+ * A small tracker script counts in-flight requests and watches DOM mutations. On Chromium it is
+ * registered with Page.addScriptToEvaluateOnNewDocument so it sees requests from the very start;
+ * elsewhere it is injected as soon as the new document can run scripts.
+ * Time to commit, to DOM ready and to app ready is recorded per navigation; see metricsSummary().
+ *
+ * In a ready mode BrowserProfile launches with page load strategy NONE, so no driver command
+ * blocks on the load event; the readiness signal takes its place.
+ * A URL that keeps the current document (fragment change, 204 / 205, download) is judged on that document;
+ * browsers without the Navigation API only detect the fragment case.
+ */
+public class ReadyNavigator {
+
+    public enum Mode {
+        LOAD,
+        NETWORK_IDLE,
+        DOM_STABLE,
+        SELECTOR;
+
+        /**
+         * navigationReadyMode: load (default), networkIdle, domStable or selector.
+         */
+        public static Mode fromConfig() {
+            String name = ConfigManager.getNavigationReadyMode();
+            if (name == null || name.isBlank()) {
+                return LOAD;
+            }
+            switch (name.trim().toLowerCase()) {
+                case "load":
+                    return LOAD;
+                case "networkidle":
+                    return NETWORK_IDLE;
+                case "domstable":
+                    return DOM_STABLE;
+                case "selector":
+                    return SELECTOR;
+                default:
+                    throw new IllegalArgumentException("Unknown navigationReadyMode: " + name
+                            + " (use load, networkIdle, domStable or selector)");
+            }
+        }
+    }
+
+    public enum Phase {
+        COMMIT,
+        DOM_READY,
+        APP_READY
+    }
+
+    private static final long INITIAL_POLL_MILLIS = 25;
+    private static final long MAX_POLL_MILLIS = 200;
+
+    private static final String TRACKER_SCRIPT =
+            "(function () {"
+          + "  if (window.__wzReady) { return; }"
+          + "  var s = { inflight: 0, lastNet: Date.now(), lastMutation: Date.now() };"
+          + "  window.__wzReady = s;"
+          + "  var done = function () { s.inflight = Math.max(0, s.inflight - 1); s.lastNet = Date.now(); };"
+          + "  var send = XMLHttpRequest.prototype.send;"
+          + "  XMLHttpRequest.prototype.send = function () {"
+          + "    s.inflight++; this.addEventListener('loadend', done); return send.apply(this, arguments);"
+          + "  };"
+          + "  if (window.fetch) {"
+          + "    var originalFetch = window.fetch;"
+          + "    window.fetch = function () {"
+          + "      s.inflight++;"
+          + "      return originalFetch.apply(this, arguments).then("
+          + "        function (r) { done(); return r; }, function (e) { done(); throw e; });"
+          + "    };"
+          + "  }"
+          + "  var observe = function () {"
+          + "    new MutationObserver(function () { s.lastMutation = Date.now(); }).observe(document.documentElement,"
+          + "      { childList: true, subtree: true, attributes: true, characterData: true });"
+          + "  };"
+          + "  if (document.documentElement) { observe(); }"
+          + "  else { document.addEventListener('readystatechange', observe, { once: true }); }"
+          + "})();";
+
+    // Returns null while the old document is still showing, else [readyState, inflight, idleMs, stableMs, found]
+    private static final String PROBE_SCRIPT =
+            "if (window.__wzLeaving) { return null; }"
+          + "if (!window.__wzReady) { " + TRACKER_SCRIPT + " }"
+          + "var s = window.__wzReady, now = Date.now();"
+          + "var found = arguments[0] ? document.querySelector(arguments[0]) !== null : false;"
+          + "return [document.readyState, s.inflight, now - s.lastNet, now - s.lastMutation, found];";
+
+    // A fragment-only change keeps the document, so it must not be marked as leaving. A 204 / 205 response or a
+    // download keeps it too: with the Navigation API the committed promise rejects then, which clears the mark
+    private static final String LEAVE_SCRIPT =
+            "var target = new URL(arguments[0], window.location.href);"
+          + "var sameDocument = target.hash !== '' && target.href.split('#')[0] === window.location.href.split('#')[0];"
+          + "if (sameDocument) { window.location.href = target.href; return; }"
+          + "window.__wzLeaving = true;"
+          + "var stay = function () { window.__wzLeaving = false; };"
+          + "if (window.navigation && window.navigation.navigate) {"
+          + "  window.navigation.navigate(target.href).committed.then(stay, stay);"
+          + "} else {"
+          + "  window.location.href = target.href;"
+          + "}";
+
+    private static final LatencyHistogram[] PHASES = {
+            new LatencyHistogram(), new LatencyHistogram(), new LatencyHistogram()
+    };
+
+    // Sessions that already have the tracker registered for every new document
+    private static final Set<WebDriver> PRE_INJECTED = Collections.synchronizedSet(
+            Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private final WebDriver driver;
+    private final Mode mode;
+    private final long idleMillis;
+    private final String readySelector;
+    private final Duration timeout;
+
+    public ReadyNavigator(WebDriver driver) {
+        this(driver, Mode.fromConfig(), ConfigManager.getNavigationIdleMs(),
+                ConfigManager.getNavigationReadySelector(),
+                Duration.ofSeconds(ConfigManager.getNavigationReadyTimeout()));
+    }
+
+    public ReadyNavigator(WebDriver driver, Mode mode, long idleMillis, String readySelector, Duration timeout) {
+        this.driver = driver;
+        this.mode = mode;
+        this.idleMillis = idleMillis;
+        this.readySelector = readySelector;
+        this.timeout = timeout;
+        if (mode == Mode.SELECTOR && (readySelector == null || readySelector.isBlank())) {
+            throw new IllegalArgumentException("navigationReadyMode=selector needs navigationReadySelector.");
+        }
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Navigate to url and block until the configured readiness signal fires.
+     * An interrupt while waiting restores the interrupt flag and fails with IllegalStateException.
+     */
+    public void navigate(String url) {
+        if (mode == Mode.LOAD) {
+            driver.navigate().to(url);
+            return;
+        }
+        preInject();
+
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        long commitNanos = -1;
+        long domReadyNanos = -1;
+        long pollMillis = INITIAL_POLL_MILLIS;
+
+        // Changing location from a script returns immediately, unlike navigate().to(url)
+        ((JavascriptExecutor) driver).executeScript(LEAVE_SCRIPT, url);
+
+        while (true) {
+            List<?> probe = probe();
+            long now = System.nanoTime();
+            if (probe != null) {
+                if (commitNanos < 0) {
+                    commitNanos = now - start;
+                }
+                String readyState = String.valueOf(probe.get(0));
+                if (domReadyNanos < 0 && !"loading".equals(readyState)) {
+                    domReadyNanos = now - start;
+                }
+                if (domReadyNanos >= 0 && isReady(probe)) {
+                    record(commitNanos, domReadyNanos, now - start);
+                    System.out.println("[ReadyNavigator] " + url + " ready (" + mode + "): commit="
+                            + millis(commitNanos) + "ms, domReady=" + millis(domReadyNanos)
+                            + "ms, appReady=" + millis(now - start) + "ms");
+                    return;
+                }
+            }
+
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - now);
+            if (remainingMillis <= 0) {
+                throw new TimeoutException("Page " + url + " not ready (" + mode + ") after "
+                        + timeout.getSeconds() + "s; last probe: " + probe);
+            }
+            try {
+                Thread.sleep(Math.min(pollMillis, remainingMillis));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for " + url + " to be ready.", e);
+            }
+            pollMillis = Math.min(pollMillis * 2, MAX_POLL_MILLIS);
+        }
+    }
+
+    /**
+     * Per-phase timings for all ready-mode navigations, e.g. for printing at suite end.
+     */
+    public static String metricsSummary() {
+        StringBuilder sb = new StringBuilder();
+        for (Phase phase : Phase.values()) {
+            LatencyHistogram histogram = PHASES[phase.ordinal()];
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            Map<String, Object> stats = histogram.toMap();
+            if (sb.length() > 0) {
+                sb.append("; ");
+            }
+            sb.append(phase)
+                    .append(": n=").append(stats.get("count"))
+                    .append(", mean=").append(stats.get("meanMs")).append("ms")
+                    .append(", p90=").append(stats.get("p90Ms")).append("ms");
+        }
+        return sb.length() == 0 ? "no ready-mode navigations" : sb.toString();
+    }
+
+    public static LatencyHistogram getPhaseHistogram(Phase phase) {
+        return PHASES[phase.ordinal()];
+    }
+
+    // ================= INTERNAL IMPLEMENTATION =================
+
+    private List<?> probe() {
+        try {
+            Object result = ((JavascriptExecutor) driver).executeScript(PROBE_SCRIPT, readySelector);
+            return result instanceof List ? (List<?>) result : null;
+        } catch (RuntimeException e) {
+            // The document was replaced while the script ran; try again on the next poll
+            return null;
+        }
+    }
+
+    private boolean isReady(List<?> probe) {
+        switch (mode) {
+            case NETWORK_IDLE:
+                return ((Number) probe.get(1)).longValue() == 0
+                        && ((Number) probe.get(2)).longValue() >= idleMillis;
+            case DOM_STABLE:
+                return ((Number) probe.get(3)).longValue() >= idleMillis;
+            case SELECTOR:
+                return Boolean.TRUE.equals(probe.get(4));
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * On Chromium, register the tracker for every new document of this session (once per session).
+     */
+    private void preInject() {
+        WebDriver raw = driver;
+        while (raw instanceof WrapsDriver) {
+            raw = ((WrapsDriver) raw).getWrappedDriver();
+        }
+        if (!DriverFactory.hasCdp(raw) || PRE_INJECTED.contains(raw)) {
+            return;
+        }
+        try {
+            DevTools devTools = ((HasDevTools) raw).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            devTools.send(new Command<>("Page.addScriptToEvaluateOnNewDocument", Map.of("source", TRACKER_SCRIPT)));
+            PRE_INJECTED.add(raw);
+        } catch (RuntimeException e) {
+            // The probe injects the tracker itself, only a little later
+            System.out.println("[ReadyNavigator] CDP pre-injection unavailable: " + e.getMessage());
+            PRE_INJECTED.add(raw);
+        }
+    }
+
+    private static void record(long commitNanos, long domReadyNanos, long readyNanos) {
+        PHASES[Phase.COMMIT.ordinal()].record(commitNanos);
+        PHASES[Phase.DOM_READY.ordinal()].record(domReadyNanos);
+        PHASES[Phase.APP_READY.ordinal()].record(readyNanos);
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
@@ -0,0 +1,188 @@
+package CoreFramework.actions;
+
+import CoreFramework.config.ConfigManager;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * SessionCache logs in once per credential set and reuses the resulting browser state.
+ *
+ * Behavior:
+ *  - restoreOrLogin(driver, account, login, isLoggedIn): injects the cached SessionSnapshot into the
+ *    (fresh or pooled) session; if there is none, or it is expired, or isLoggedIn fails after injecting,
+ *    it runs the UI login once, captures a new snapshot and caches it
+ *  - snapshots live in memory for the run and, with sessionCacheOnDisk=true, in sessionCacheDir
+ *    so the next run can reuse them until sessionCacheTtlMinutes has passed
+ *  - parallel tests asking for the same account wait for one login instead of all logging in; the lock is
+ *    held for the snapshot lookup and the login only, so restoring a snapshot never waits for another test
+ *
+ * Accounts are keyed by a SHA-256 of base URL + credentials; no credential is written to disk.
+ */
+public class SessionCache {
+
+    private static final Map<String, SessionSnapshot> SNAPSHOTS = new ConcurrentHashMap<>();
+    private static final Map<String, Object> LOCKS = new ConcurrentHashMap<>();
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong logins = new AtomicLong();
+    private static final AtomicLong refreshes = new AtomicLong();
+
+    /**
+     * UI login steps, e.g. open the login page, fill the form and wait until the app is logged in.
+     */
+    public interface Login {
+        void perform() throws InterruptedException;
+    }
+
+    /**
+     * Leave the driver logged in as the given account, reusing a snapshot whenever possible.
+     */
+    public static void restoreOrLogin(WebDriver driver, String account, Login login, BooleanSupplier isLoggedIn)
+            throws InterruptedException {
+        String key = keyFor(account);
+        Object lock = LOCKS.computeIfAbsent(key, k -> new Object());
+        String restorePath = ConfigManager.getSessionRestorePath();
+        SessionSnapshot rejected = null;
+
+        while (true) {
+            SessionSnapshot snapshot;
+            // Held for the lookup and, when there is no usable snapshot, for the one UI login
+            synchronized (lock) {
+                snapshot = cached(key);
+                if (snapshot != null && snapshot == rejected) {
+                    // Logged out server-side, password changed, ...: forget it and log in again
+                    invalidate(key);
+                    refreshes.incrementAndGet();
+                    snapshot = null;
+                }
+                if (snapshot == null) {
+                    login.perform();
+                    logins.incrementAndGet();
+                    SessionSnapshot fresh = SessionSnapshot.capture(driver);
+                    SNAPSHOTS.put(key, fresh);
+                    writeToDisk(key, fresh);
+                    return;
+                }
+            }
+
+            // Restoring and checking navigate; other tests of this account do the same in parallel meanwhile
+            snapshot.restoreInto(driver, restorePath);
+            if (isLoggedIn.getAsBoolean()) {
+                hits.incrementAndGet();
+                System.out.println("[SessionCache] Reused session for " + snapshot.getOrigin()
+                        + " (" + snapshot.getCookieCount() + " cookies)");
+                return;
+            }
+            snapshot.clearFrom(driver, restorePath);
+            System.out.println("[SessionCache] Cached session was rejected, logging in again.");
+            // Another test may have replaced the snapshot meanwhile; if not, the next round logs in
+            rejected = snapshot;
+        }
+    }
+
+    /**
+     * Drop every cached snapshot (memory and disk), e.g. after changing a password in a test.
+     */
+    public static void clear() {
+        for (String key : SNAPSHOTS.keySet()) {
+            invalidate(key);
+        }
+    }
+
+    public static String metricsSummary() {
+        return "reused=" + hits.get() + ", uiLogins=" + logins.get() + ", refreshed=" + refreshes.get();
+    }
+
+    // ================= INTERNAL IMPLEMENTATION =================
+
+    private static SessionSnapshot cached(String key) {
+        long ttl = TimeUnit.MINUTES.toMillis(ConfigManager.getSessionCacheTtlMinutes());
+        long now = System.currentTimeMillis();
+
+        SessionSnapshot snapshot = SNAPSHOTS.get(key);
+        if (snapshot == null) {
+            snapshot = readFromDisk(key);
+        }
+        if (snapshot != null && snapshot.isExpired(ttl, now)) {
+            invalidate(key);
+            refreshes.incrementAndGet();
+            return null;
+        }
+        if (snapshot != null) {
+            SNAPSHOTS.put(key, snapshot);
+        }
+        return snapshot;
+    }
+
+    private static void invalidate(String key) {
+        SNAPSHOTS.remove(key);
+        try {
+            Files.deleteIfExists(fileFor(key));
+        } catch (IOException e) {
+            System.out.println("[SessionCache] Failed to delete " + fileFor(key) + ": " + e.getMessage());
+        }
+    }
+
+    private static SessionSnapshot readFromDisk(String key) {
+        if (!ConfigManager.isSessionCacheOnDisk()) {
+            return null;
+        }
+        Path file = fileFor(key);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            String json = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            Map<String, Object> map = new Json().toType(json, Json.MAP_TYPE);
+            return SessionSnapshot.fromMap(map);
+        } catch (Exception e) {
+            System.out.println("[SessionCache] Ignoring unreadable snapshot " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void writeToDisk(String key, SessionSnapshot snapshot) {
+        if (!ConfigManager.isSessionCacheOnDisk()) {
+            return;
+        }
+        Path file = fileFor(key);
+        try {
+            Files.createDirectories(file.getParent());
+            // Write then rename, so a parallel reader never sees half a file
+            Path tmp = Files.createTempFile(file.getParent(), key, ".tmp");
+            Files.write(tmp, new Json().toJson(snapshot.toMap()).getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("[SessionCache] Failed to write " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static Path fileFor(String key) {
+        return Paths.get(ConfigManager.getSessionCacheDir()).resolve(key + ".json");
+    }
+
+    private static String keyFor(String account) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((ConfigManager.getBaseUrl() + "\n" + account).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package CoreFramework.actions;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cookies, localStorage and sessionStorage of a logged-in browser session, for one origin.
+ *
+ * Behavior:
+ *  - capture(driver): reads all three from the page the driver is on (one cookie call + one script)
+ *  - restoreInto(driver, path): opens a light page on the same origin, replaces cookies and writes
+ *    both storages in one script, so the next navigation is already authenticated
+ *  - clearFrom(driver, path): removes what restoreInto wrote, when the app rejected the snapshot
+ *  - toMap() / fromMap(): plain maps for the JSON file written by SessionCache
+ */
+public final class SessionSnapshot {
+
+    private static final String READ_STORAGE_SCRIPT =
+            "var dump = function (s) { var o = {}; for (var i = 0; i < s.length; i++) {"
+          + "  var k = s.key(i); o[k] = s.getItem(k); } return o; };"
+          + "return [dump(window.localStorage), dump(window.sessionStorage)];";
+
+    private static final String WRITE_STORAGE_SCRIPT =
+            "var fill = function (s, o) { s.clear(); for (var k in o) { s.setItem(k, o[k]); } };"
+          + "fill(window.localStorage, arguments[0]); fill(window.sessionStorage, arguments[1]);";
+
+    private static final String CLEAR_STORAGE_SCRIPT =
+            "window.localStorage.clear(); window.sessionStorage.clear();";
+
+    private final String origin;
+    private final long capturedAtMillis;
+    private final List<Map<String, Object>> cookies;
+    private final Map<String, Object> localStorage;
+    private final Map<String, Object> sessionStorage;
+
+    private SessionSnapshot(String origin, long capturedAtMillis, List<Map<String, Object>> cookies,
+                            Map<String, Object> localStorage, Map<String, Object> sessionStorage) {
+        this.origin = origin;
+        this.capturedAtMillis = capturedAtMillis;
+        this.cookies = cookies;
+        this.localStorage = localStorage;
+        this.sessionStorage = sessionStorage;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static SessionSnapshot capture(WebDriver driver) {
+        String origin = originOf(driver.getCurrentUrl());
+
+        List<Map<String, Object>> cookies = new ArrayList<>();
+        for (Cookie cookie : driver.manage().getCookies()) {
+            cookies.add(cookieToMap(cookie));
+        }
+
+        List<Object> storage = (List<Object>) ((JavascriptExecutor) driver).executeScript(READ_STORAGE_SCRIPT);
+        return new SessionSnapshot(origin, System.currentTimeMillis(), cookies,
+                (Map<String, Object>) storage.get(0), (Map<String, Object>) storage.get(1));
+    }
+
+    /**
+     * Put this snapshot into the driver's session. Afterwards the driver is on origin + restorePath.
+     */
+    public void restoreInto(WebDriver driver, String restorePath) {
+        // Cookies and storage can only be written for the origin the browser is on
+        driver.navigate().to(origin + restorePath);
+        driver.manage().deleteAllCookies();
+        for (Map<String, Object> raw : cookies) {
+            try {
+                driver.manage().addCookie(cookieFromMap(raw));
+            } catch (WebDriverException e) {
+                // e.g. a cookie of a parent / sibling domain the browser refuses here
+                System.out.println("[SessionSnapshot] Skipped cookie " + raw.get("name") + ": "
+                        + e.getMessage().split("\n")[0]);
+            }
+        }
+        ((JavascriptExecutor) driver).executeScript(WRITE_STORAGE_SCRIPT, localStorage, sessionStorage);
+    }
+
+    /**
+     * Undo restoreInto after the app rejected the snapshot: remove the cookies and empty both storages of this
+     * origin, so the UI login starts from a clean state. Afterwards the driver is on origin + restorePath.
+     */
+    public void clearFrom(WebDriver driver, String restorePath) {
+        if (!driver.getCurrentUrl().startsWith(origin)) {
+            driver.navigate().to(origin + restorePath);
+        }
+        driver.manage().deleteAllCookies();
+        ((JavascriptExecutor) driver).executeScript(CLEAR_STORAGE_SCRIPT);
+    }
+
+    /**
+     * True when older than ttlMillis or when one of the cookies has already expired.
+     */
+    public boolean isExpired(long ttlMillis, long nowMillis) {
+        if (nowMillis - capturedAtMillis > ttlMillis) {
+            return true;
+        }
+        for (Map<String, Object> cookie : cookies) {
+            Object expiry = cookie.get("expiry");
+            if (expiry instanceof Number && ((Number) expiry).longValue() <= nowMillis) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public long getCapturedAtMillis() {
+        return capturedAtMillis;
+    }
+
+    public int getCookieCount() {
+        return cookies.size();
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("origin", origin);
+        map.put("capturedAt", capturedAtMillis);
+        map.put("cookies", cookies);
+        map.put("localStorage", localStorage);
+        map.put("sessionStorage", sessionStorage);
+        return map;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static SessionSnapshot fromMap(Map<String, Object> map) {
+        return new SessionSnapshot(
+                (String) map.get("origin"),
+                ((Number) map.get("capturedAt")).longValue(),
+                (List<Map<String, Object>>) map.get("cookies"),
+                (Map<String, Object>) map.get("localStorage"),
+                (Map<String, Object>) map.get("sessionStorage"));
+    }
+
+    // ================= INTERNAL IMPLEMENTATION =================
+
+    private static String originOf(String url) {
+        URI uri = URI.create(url);
+        return uri.getScheme() + "://" + uri.getHost() + (uri.getPort() == -1 ? "" : ":" + uri.getPort());
+    }
+
+    private static Map<String, Object> cookieToMap(Cookie cookie) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("name", cookie.getName());
+        map.put("value", cookie.getValue());
+        map.put("domain", cookie.getDomain());
+        map.put("path", cookie.getPath());
+        if (cookie.getExpiry() != null) {
+            map.put("expiry", cookie.getExpiry().getTime());
+        }
+        map.put("secure", cookie.isSecure());
+        map.put("httpOnly", cookie.isHttpOnly());
+        if (cookie.getSameSite() != null) {
+            map.put("sameSite", cookie.getSameSite());
+        }
+        return map;
+    }
+
+    private static Cookie cookieFromMap(Map<String, Object> map) {
+        Cookie.Builder builder = new Cookie.Builder((String) map.get("name"), (String) map.get("value"))
+                .domain((String) map.get("domain"))
+                .path((String) map.get("path"))
+                .isSecure(Boolean.TRUE.equals(map.get("secure")))
+                .isHttpOnly(Boolean.TRUE.equals(map.get("httpOnly")));
+        Object expiry = map.get("expiry");
+        if (expiry instanceof Number) {
+            builder.expiresOn(new Date(((Number) expiry).longValue()));
+        }
+        if (map.get("sameSite") != null) {
+            builder.sameSite((String) map.get("sameSite"));
+        }
+        return builder.build();
+    }
+}
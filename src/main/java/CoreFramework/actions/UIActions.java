@@ -1,15 +1,68 @@
 package CoreFramework.actions;
 
+import CoreFramework.utils.reporting.ActionJournal;
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class UIActions {
-    private final Logger logger = Logger.getLogger(UIActions.class.getName());
+
+    // Resolves a [selectorType, locator] pair the same way selectElement() does
+    private static final String FIND_FUNCTION =
+            "function find(type, locator) {" +
+            "  switch (type) {" +
+            "    case 'id': return document.getElementById(locator);" +
+            "    case 'name': return document.getElementsByName(locator)[0] || null;" +
+            "    case 'cssSelector': return document.querySelector(locator);" +
+            "    case 'xpath': return document.evaluate(locator, document, null," +
+            "        XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;" +
+            "    case 'tagname': return document.getElementsByTagName(locator)[0] || null;" +
+            "    case 'classname': return document.getElementsByClassName(locator)[0] || null;" +
+            "    case 'linktext': return Array.from(document.links)" +
+            "        .find(function (a) { return a.innerText.trim() === locator; }) || null;" +
+            "    case 'partiallinktext': return Array.from(document.links)" +
+            "        .find(function (a) { return a.innerText.indexOf(locator) >= 0; }) || null;" +
+            "  }" +
+            "  return null;" +
+            "}";
+
+    // Native setter + input/change events, so React's value tracker sees the change
+    private static final String BATCH_SET_SCRIPT = FIND_FUNCTION +
+            "return arguments[0].map(function (f) {" +
+            "  var el = find(f[0], f[1]);" +
+            "  if (!el || el.disabled || el.readOnly) { return 'missing'; }" +
+            "  var proto = el instanceof HTMLTextAreaElement ? HTMLTextAreaElement.prototype" +
+            "      : el instanceof HTMLInputElement ? HTMLInputElement.prototype : null;" +
+            "  if (!proto) { return 'unsupported'; }" +
+            "  el.focus();" +
+            "  Object.getOwnPropertyDescriptor(proto, 'value').set.call(el, f[2]);" +
+            "  el.dispatchEvent(new Event('input', { bubbles: true }));" +
+            "  el.dispatchEvent(new Event('change', { bubbles: true }));" +
+            "  el.dispatchEvent(new FocusEvent('blur'));" +
+            "  el.dispatchEvent(new FocusEvent('focusout', { bubbles: true }));" +
+            "  return el.value === f[2] ? 'ok' : 'mismatch';" +
+            "});";
+
+    private static final String BATCH_GET_SCRIPT = FIND_FUNCTION +
+            "return arguments[0].map(function (f) {" +
+            "  var el = find(f[0], f[1]);" +
+            "  return el ? el.innerText.trim() : null;" +
+            "});";
+
+    private static final AtomicLong batches = new AtomicLong();
+    private static final AtomicLong unbatchedRoundTrips = new AtomicLong();
+    private static final AtomicLong batchedRoundTrips = new AtomicLong();
+
     private final WebDriver driver;
+    private final WaitEngine waitEngine;
+    private final ElementCache elementCache;
+    private final ReadyNavigator readyNavigator;
 
     public UIActions() {
         // use the same driver manager used by BaseTest/BasePage/ReportManager
@@ -20,67 +73,192 @@ public class UIActions {
                             "Make sure DriverFactory.initDriver() is called before using UIActions."
             );
         }
+        this.waitEngine = new WaitEngine(driver);
+        this.elementCache = new ElementCache(driver);
+        this.readyNavigator = new ReadyNavigator(driver);
     }
 
 
 public void navigateToPage(String url) {
+        long start = System.nanoTime();
         try {
-            driver.navigate().to(url);
-            logger.info("Navigated to page: " + url);
+            NetworkShaper.startNavigation(driver);
+            readyNavigator.navigate(url);
+            // Elements of the previous page are gone
+            elementCache.clear();
+            ActionJournal.action(ActionJournal.Type.NAVIGATE, url, start, ActionJournal.Outcome.OK,
+                    NetworkShaper.navigationSummary(driver));
         } catch (Exception e) {
-            logger.log(Level.SEVERE, "Failed to navigate to page: " + url, e);
+            ActionJournal.action(ActionJournal.Type.NAVIGATE, url, start, ActionJournal.Outcome.FAILED, e.toString());
             throw e;
         }
     }
 
 
     public void click(SelectorType selector, String locator) throws InterruptedException {
+        long start = System.nanoTime();
         try {
-            Thread.sleep(3000);
-            WebElement element = findElement(selector, locator);
+            WebElement element = waitEngine.waitForClickable(cached(selector, locator));
             element.click();
-            logger.info("Clicked element: " + locator);
+            ActionJournal.action(ActionJournal.Type.CLICK, locator, start, ActionJournal.Outcome.OK, null);
         } catch (Exception e) {
-            logger.log(Level.SEVERE, "Failed to click element: " + locator, e);
+            ActionJournal.action(ActionJournal.Type.CLICK, locator, start, ActionJournal.Outcome.FAILED, e.toString());
             throw e;
         }
     }
 
 
     public void setText(SelectorType selector, String locator, String text) throws InterruptedException {
+        long start = System.nanoTime();
         try {
-            Thread.sleep(3000);
-            WebElement element = findElement(selector, locator);
+            WebElement element = waitEngine.waitForEditable(cached(selector, locator));
             element.sendKeys(text);
-            logger.info("Sent keys"+text+" to element ");
+            ActionJournal.action(ActionJournal.Type.SET_TEXT, locator, start, ActionJournal.Outcome.OK, null);
         } catch (Exception e) {
-            logger.log(Level.SEVERE, "Failed to send keys to element: " + locator, e);
+            ActionJournal.action(ActionJournal.Type.SET_TEXT, locator, start, ActionJournal.Outcome.FAILED, e.toString());
             throw e;
         }
     }
 
-    public void clearText(SelectorType selector, String locator) {
+    public void clearText(SelectorType selector, String locator) throws InterruptedException {
+        long start = System.nanoTime();
         try {
-            WebElement element = findElement(selector, locator);
+            WebElement element = waitEngine.waitForEditable(cached(selector, locator));
             element.clear();
-            logger.info("Cleared text " );
+            ActionJournal.action(ActionJournal.Type.CLEAR_TEXT, locator, start, ActionJournal.Outcome.OK, null);
         } catch (Exception e) {
-            logger.log(Level.SEVERE, "Failed to clear text in element: " + locator,  e);
+            ActionJournal.action(ActionJournal.Type.CLEAR_TEXT, locator, start, ActionJournal.Outcome.FAILED, e.toString());
             throw e;
         }
     }
     public String getText(SelectorType selector, String locator) throws InterruptedException {
+        long start = System.nanoTime();
         try {
-            Thread.sleep(3000);
-            WebElement element = findElement(selector, locator);
-            logger.info("Get text from element ");
-            return element.getText();
+            WebElement element = waitEngine.waitForText(cached(selector, locator));
+            String text = element.getText();
+            ActionJournal.action(ActionJournal.Type.GET_TEXT, locator, start, ActionJournal.Outcome.OK, null);
+            return text;
+        } catch (Exception e) {
+            ActionJournal.action(ActionJournal.Type.GET_TEXT, locator, start, ActionJournal.Outcome.FAILED, e.toString());
+            throw e;
+        }
+    }
+    /**
+     * Fill several fields in ONE executeScript round-trip instead of find + clear + sendKeys per field.
+     * Values are set through the native value setter and input/change events are dispatched,
+     * so React-style controlled inputs pick them up. Fields marked withSendKeys(), and fields the
+     * script could not find, fall back to setText (clear + real sendKeys).
+     */
+    public void setTexts(List<FormField> fields) throws InterruptedException {
+        List<FormField> scripted = new ArrayList<>();
+        List<FormField> fallback = new ArrayList<>();
+        for (FormField field : fields) {
+            (field.usesSendKeys() ? fallback : scripted).add(field);
+        }
+
+        long start = System.nanoTime();
+        try {
+            long roundTrips = 0;
+            if (!scripted.isEmpty()) {
+                List<?> results = (List<?>) ((JavascriptExecutor) driver)
+                        .executeScript(BATCH_SET_SCRIPT, toScriptArgs(scripted));
+                roundTrips++;
+                for (int i = 0; i < scripted.size(); i++) {
+                    if (!"ok".equals(results.get(i))) {
+                        fallback.add(scripted.get(i));
+                    }
+                }
+            }
+            for (FormField field : fallback) {
+                clearText(field.getSelector(), field.getLocator());
+                setText(field.getSelector(), field.getLocator(), field.getValue());
+                // clearText: find + isDisplayed + isEnabled + clear; setText (cached): isDisplayed + isEnabled + sendKeys
+                roundTrips += 7;
+            }
+            recordBatch(fields.size() * 3L, roundTrips);
+            ActionJournal.action(ActionJournal.Type.SET_TEXTS, null, start, ActionJournal.Outcome.OK,
+                    fields.size() + " fields, " + roundTrips + " round-trips, " + fallback.size() + " via sendKeys");
+        } catch (Exception e) {
+            ActionJournal.action(ActionJournal.Type.SET_TEXTS, null, start, ActionJournal.Outcome.FAILED, e.toString());
+            throw e;
+        }
+    }
 
+    /**
+     * Read the visible text of several elements in ONE executeScript round-trip.
+     * Missing elements come back as null; this does not wait for the text to appear.
+     */
+    public List<String> getTexts(List<FormField> fields) {
+        long start = System.nanoTime();
+        try {
+            List<?> raw = (List<?>) ((JavascriptExecutor) driver)
+                    .executeScript(BATCH_GET_SCRIPT, toScriptArgs(fields));
+            List<String> texts = new ArrayList<>(raw.size());
+            for (Object text : raw) {
+                texts.add(text == null ? null : text.toString());
+            }
+            // find + getText per element without batching
+            recordBatch(fields.size() * 2L, 1);
+            ActionJournal.action(ActionJournal.Type.GET_TEXTS, null, start, ActionJournal.Outcome.OK, null);
+            return texts;
         } catch (Exception e) {
-            logger.log(Level.SEVERE, "Failed to get text from element: " + locator, e);
+            ActionJournal.action(ActionJournal.Type.GET_TEXTS, null, start, ActionJournal.Outcome.FAILED, e.toString());
             throw e;
         }
     }
+
+    /**
+     * Round-trips the batch API would have needed one field at a time, versus what it sent.
+     */
+    public static String batchMetricsSummary() {
+        return "batches=" + batches.get()
+                + ", roundTripsUnbatched=" + unbatchedRoundTrips.get()
+                + ", roundTripsSent=" + batchedRoundTrips.get();
+    }
+
+    private static void recordBatch(long unbatched, long sent) {
+        batches.incrementAndGet();
+        unbatchedRoundTrips.addAndGet(unbatched);
+        batchedRoundTrips.addAndGet(sent);
+    }
+
+    private static List<List<String>> toScriptArgs(List<FormField> fields) {
+        List<List<String>> args = new ArrayList<>(fields.size());
+        for (FormField field : fields) {
+            args.add(Arrays.asList(field.getSelector().name(), field.getLocator(), field.getValue()));
+        }
+        return args;
+    }
+
+    /**
+     * Cached lookup of (selector, locator) for the wait engine.
+     */
+    private WaitEngine.ElementLookup cached(SelectorType selector, String locator) {
+        return elementCache.lookup(selector, locator, selectElement(selector, locator));
+    }
+
+    /**
+     * Number of matching elements right now (sessions run with an implicit wait of 0, so this never waits).
+     */
+    public int countElements(SelectorType selector, String locator) {
+        return driver.findElements(selectElement(selector, locator)).size();
+    }
+
+    public boolean isElementPresent(SelectorType selector, String locator) {
+        return countElements(selector, locator) > 0;
+    }
+
+    /**
+     * Fast negative check, e.g. "no error message is shown": returns in milliseconds, it does not wait
+     * for the element to go away.
+     */
+    public boolean isElementAbsent(SelectorType selector, String locator) {
+        return countElements(selector, locator) == 0;
+    }
+
+    /**
+     * One findElement, without waiting (implicit wait is 0); the actions above wait through WaitEngine.
+     */
     public WebElement findElement(SelectorType selector, String locator) {
         return driver.findElement(selectElement(selector, locator));
     }
@@ -0,0 +1,223 @@
+package CoreFramework.actions;
+
+import CoreFramework.config.ConfigManager;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * WaitEngine polls for the condition each UI action needs instead of sleeping a fixed time.
+ *
+ * Behavior:
+ *  - waitForClickable(by): element is displayed and enabled (click)
+ *  - waitForEditable(by): element is displayed and enabled (setText / clearText)
+ *  - waitForText(by): element is displayed and has non-empty text (getText)
+ *
+ * Polling starts at 50 ms and doubles up to 500 ms, bounded by ConfigManager.getExplicitWait().
+ * Sessions are created with an implicit wait of 0 (see DriverFactory), so a single findElement
+ * never blocks and the explicit timeout is the only wait.
+ * Per-action metrics are kept for the whole run; see metricsSummary().
+ */
+public class WaitEngine {
+
+    public enum Action {
+        CLICK,
+        SET_TEXT,
+        GET_TEXT
+    }
+
+    private static final long INITIAL_POLL_MILLIS = 50;
+    private static final long MAX_POLL_MILLIS = 500;
+
+    // The fixed Thread.sleep(3000) every action used to pay, kept as the baseline for "time saved"
+    private static final long FIXED_SLEEP_MILLIS = 3000;
+
+    private static final Map<Action, ActionStats> STATS = new EnumMap<>(Action.class);
+
+    static {
+        for (Action action : Action.values()) {
+            STATS.put(action, new ActionStats());
+        }
+    }
+
+    private final WebDriver driver;
+    private final Duration timeout;
+
+    public WaitEngine(WebDriver driver) {
+        this(driver, Duration.ofSeconds(ConfigManager.getExplicitWait()));
+    }
+
+    public WaitEngine(WebDriver driver, Duration timeout) {
+        this.driver = driver;
+        this.timeout = timeout;
+    }
+
+    public WebElement waitForClickable(By by) throws InterruptedException {
+        return waitForClickable(lookup(by));
+    }
+
+    public WebElement waitForClickable(ElementLookup lookup) throws InterruptedException {
+        return await(Action.CLICK, lookup, element ->
+                element.isDisplayed() && element.isEnabled());
+    }
+
+    public WebElement waitForEditable(By by) throws InterruptedException {
+        return waitForEditable(lookup(by));
+    }
+
+    public WebElement waitForEditable(ElementLookup lookup) throws InterruptedException {
+        return await(Action.SET_TEXT, lookup, element ->
+                element.isDisplayed() && element.isEnabled());
+    }
+
+    public WebElement waitForText(By by) throws InterruptedException {
+        return waitForText(lookup(by));
+    }
+
+    public WebElement waitForText(ElementLookup lookup) throws InterruptedException {
+        return await(Action.GET_TEXT, lookup, element ->
+                element.isDisplayed() && !element.getText().isEmpty());
+    }
+
+    /**
+     * Human-readable per-action wait metrics, e.g. for printing at suite end.
+     */
+    public static String metricsSummary() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<Action, ActionStats> entry : STATS.entrySet()) {
+            ActionStats s = entry.getValue();
+            long calls = s.calls.get();
+            if (calls == 0) {
+                continue;
+            }
+            long waitedMillis = TimeUnit.NANOSECONDS.toMillis(s.waitedNanos.get());
+            if (sb.length() > 0) {
+                sb.append("; ");
+            }
+            sb.append(entry.getKey())
+                    .append(": calls=").append(calls)
+                    .append(", immediate=").append(s.immediate.get())
+                    .append(", timeouts=").append(s.timeouts.get())
+                    .append(", polls=").append(s.polls.get())
+                    .append(", waited=").append(waitedMillis).append("ms")
+                    .append(", savedVsFixedSleep=").append(calls * FIXED_SLEEP_MILLIS - waitedMillis).append("ms");
+        }
+        return sb.length() == 0 ? "no waits recorded" : sb.toString();
+    }
+
+    public static ActionStats getStats(Action action) {
+        return STATS.get(action);
+    }
+
+    // ================= INTERNAL IMPLEMENTATION =================
+
+    private ElementLookup lookup(By by) {
+        return new ElementLookup() {
+            @Override
+            public WebElement find() {
+                return driver.findElement(by);
+            }
+
+            @Override
+            public String toString() {
+                return by.toString();
+            }
+        };
+    }
+
+    private WebElement await(Action action, ElementLookup lookup, Predicate<WebElement> condition)
+            throws InterruptedException {
+        ActionStats stats = STATS.get(action);
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        long pollMillis = INITIAL_POLL_MILLIS;
+        int polls = 0;
+        RuntimeException lastError = null;
+
+        try {
+            while (true) {
+                polls++;
+                try {
+                    WebElement element = lookup.find();
+                    if (condition.test(element)) {
+                        if (polls == 1) {
+                            stats.immediate.incrementAndGet();
+                        }
+                        return element;
+                    }
+                } catch (NoSuchElementException e) {
+                    lastError = e;
+                } catch (StaleElementReferenceException e) {
+                    // The page re-rendered; resolve the element again on the next poll
+                    lookup.invalidate();
+                    lastError = e;
+                }
+
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMillis <= 0) {
+                    stats.timeouts.incrementAndGet();
+                    throw new TimeoutException("Timed out after " + timeout.getSeconds() + "s waiting for "
+                            + action + " condition on " + lookup, lastError);
+                }
+                Thread.sleep(Math.min(pollMillis, remainingMillis));
+                pollMillis = Math.min(pollMillis * 2, MAX_POLL_MILLIS);
+            }
+        } finally {
+            stats.calls.incrementAndGet();
+            stats.polls.addAndGet(polls);
+            stats.waitedNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * How the engine gets the element it checks: a plain findElement, or a cached element
+     * that is invalidated when it goes stale (see ElementCache).
+     */
+    public interface ElementLookup {
+        WebElement find();
+
+        default void invalidate() {
+        }
+    }
+
+    /**
+     * Counters for one action type. All values are cumulative for the JVM.
+     */
+    public static class ActionStats {
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong immediate = new AtomicLong();
+        private final AtomicLong timeouts = new AtomicLong();
+        private final AtomicLong polls = new AtomicLong();
+        private final AtomicLong waitedNanos = new AtomicLong();
+
+        public long getCalls() {
+            return calls.get();
+        }
+
+        public long getImmediate() {
+            return immediate.get();
+        }
+
+        public long getTimeouts() {
+            return timeouts.get();
+        }
+
+        public long getPolls() {
+            return polls.get();
+        }
+
+        public Duration getWaited() {
+            return Duration.ofNanos(waitedNanos.get());
+        }
+    }
+}
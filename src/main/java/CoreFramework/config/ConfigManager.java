@@ -2,7 +2,10 @@ package CoreFramework.config;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
+import java.util.stream.Collectors;
 
 public class ConfigManager {
 
@@ -29,6 +32,33 @@ public class ConfigManager {
         return props.getProperty(key);
     }
 
+    private static int getInt(String key, int defaultValue) {
+        String value = get(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        return Integer.parseInt(value.trim());
+    }
+
+    private static boolean getBoolean(String key, boolean defaultValue) {
+        String value = get(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        return Boolean.parseBoolean(value.trim());
+    }
+
+    private static List<String> getList(String key) {
+        String raw = get(key);
+        if (raw == null || raw.isBlank()) {
+            return Collections.emptyList();
+        }
+        return java.util.Arrays.stream(raw.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toList());
+    }
+
     public static String getBaseUrl() {
         return get("baseUrl");
     }
@@ -37,10 +67,6 @@ public class ConfigManager {
         return get("browser");
     }
 
-    public static int getImplicitWait() {
-        return Integer.parseInt(get("implicitWait"));
-    }
-
     public static int getExplicitWait() {
         return Integer.parseInt(get("explicitWait"));
     }
@@ -73,4 +99,459 @@ public class ConfigManager {
                 .toArray(String[]::new);
     }
 
+    // --- Email dispatch ---
+
+    public static String getSmtpHost() {
+        String host = get("smtpHost");
+        return host == null || host.isBlank() ? "smtp.gmail.com" : host.trim();
+    }
+
+    public static int getSmtpPort() {
+        return getInt("smtpPort", 587);
+    }
+
+    public static boolean isSmtpStartTls() {
+        return getBoolean("smtpStartTls", true);
+    }
+
+    /**
+     * Emails that may wait for the dispatcher; further failures are dropped (and counted) until it catches up.
+     */
+    public static int getEmailQueueCapacity() {
+        return getInt("emailQueueCapacity", 100);
+    }
+
+    public static int getEmailSendAttempts() {
+        return getInt("emailSendAttempts", 4);
+    }
+
+    /**
+     * Delay before the first retry; doubled for every further attempt.
+     */
+    public static long getEmailRetryBackoffMillis() {
+        return getInt("emailRetryBackoffMillis", 2000);
+    }
+
+    /**
+     * How long suite end / JVM exit waits for queued emails.
+     */
+    public static int getEmailDrainTimeoutSeconds() {
+        return getInt("emailDrainTimeoutSeconds", 60);
+    }
+
+    /**
+     * Failures with the same signature within this window share one digest email; 0 = one email per failure.
+     */
+    public static int getEmailDigestWindowSeconds() {
+        return getInt("emailDigestWindowSeconds", 60);
+    }
+
+    /**
+     * Application stack frames (library frames skipped) that are part of a failure signature.
+     */
+    public static int getEmailDigestSignatureFrames() {
+        return getInt("emailDigestSignatureFrames", 3);
+    }
+
+    /**
+     * Failure emails per recipient list per hour; 0 = unlimited.
+     */
+    public static int getEmailRateLimitPerHour() {
+        return getInt("emailRateLimitPerHour", 20);
+    }
+
+    // --- Driver pool ---
+
+    public static boolean isDriverPoolEnabled() {
+        return getBoolean("driverPoolEnabled", false);
+    }
+
+    public static int getDriverPoolMaxSize() {
+        return getInt("driverPoolMaxSize", 4);
+    }
+
+    public static int getDriverPoolBorrowTimeout() {
+        return getInt("driverPoolBorrowTimeout", 120);
+    }
+
+    public static int getDriverPoolHealthCheckTimeout() {
+        return getInt("driverPoolHealthCheckTimeout", 5);
+    }
+
+    /**
+     * Spare sessions the pool launches in the background while tests run (0 disables pre-warming).
+     */
+    public static int getDriverPrewarmCount() {
+        return getInt("driverPrewarmCount", 1);
+    }
+
+    /**
+     * Estimated memory per browser; pre-warming stops when less than this is free (0 disables the check).
+     */
+    public static int getDriverSessionMemoryMb() {
+        return getInt("driverSessionMemoryMb", 512);
+    }
+
+    // --- Parallel execution ---
+
+    /**
+     * TestNG parallel mode: none, methods, classes, tests or instances.
+     */
+    public static String getParallelMode() {
+        String mode = get("parallel");
+        return mode == null || mode.isBlank() ? "none" : mode.trim();
+    }
+
+    public static int getThreadCount() {
+        return getInt("threadCount", Runtime.getRuntime().availableProcessors());
+    }
+
+    public static int getDataProviderThreadCount() {
+        return getInt("dataProviderThreadCount", getThreadCount());
+    }
+
+    public static boolean isParallelExecution() {
+        return !"none".equalsIgnoreCase(getParallelMode()) && getThreadCount() > 1;
+    }
+
+    // --- Driver binaries ---
+
+    /**
+     * Folder used as the WebDriverManager cache; empty means the WebDriverManager default.
+     */
+    public static String getDriverCachePath() {
+        return get("driverCachePath");
+    }
+
+    /**
+     * When true, driver binaries are only taken from driverCachePath and the network is never used.
+     */
+    public static boolean isDriverOffline() {
+        return getBoolean("driverOffline", false);
+    }
+
+    // --- Browser profile ---
+
+    /**
+     * default or fast (see BrowserProfile).
+     */
+    public static String getBrowserProfile() {
+        return get("browserProfile");
+    }
+
+    public static boolean isHeadless() {
+        return getBoolean("headless", true);
+    }
+
+    /**
+     * Fixed viewport for the fast profile, e.g. 1920,1080.
+     */
+    public static String getWindowSize() {
+        String size = get("windowSize");
+        return size == null || size.isBlank() ? "1920,1080" : size.trim();
+    }
+
+    public static boolean isDisableImages() {
+        return getBoolean("disableImages", false);
+    }
+
+    /**
+     * Parent folder for the per-session temp profile directories of the fast profile.
+     */
+    public static String getBrowserProfileDir() {
+        String dir = get("browserProfileDir");
+        return dir == null || dir.isBlank() ? "target/browser-profiles" : dir.trim();
+    }
+
+    /**
+     * platform (default) or virtual; virtual only takes effect when the suite is started by SuiteRunner.
+     */
+    public static boolean isVirtualThreadMode() {
+        String mode = get("threadMode");
+        return mode != null && mode.trim().equalsIgnoreCase("virtual");
+    }
+
+    // --- Remote execution ---
+
+    /**
+     * local (default) or remote (RemoteWebDriver sessions spread over gridNodes).
+     */
+    public static boolean isRemoteExecution() {
+        String mode = get("executionMode");
+        return mode != null && mode.trim().equalsIgnoreCase("remote");
+    }
+
+    /**
+     * Comma-separated node / Grid endpoints, e.g. http://node1:4444,http://node2:4444
+     */
+    public static String getGridNodes() {
+        return get("gridNodes");
+    }
+
+    public static int getGridNodeCapacity() {
+        return getInt("gridNodeCapacity", 4);
+    }
+
+    /**
+     * How many nodes to try before giving up on creating a session.
+     */
+    public static int getGridSessionAttempts() {
+        return getInt("gridSessionAttempts", 3);
+    }
+
+    // --- Network shaping ---
+
+    /**
+     * URL patterns (with * wildcards) the browser must not load, e.g. analytics, ads, chat widgets.
+     */
+    public static List<String> getNetworkBlocklist() {
+        return getList("networkBlocklist");
+    }
+
+    /**
+     * URL patterns that are always loaded, even when they also match the blocklist.
+     */
+    public static List<String> getNetworkAllowlist() {
+        return getList("networkAllowlist");
+    }
+
+    /**
+     * none (default), slow3g, fast3g, 4g or custom (networkLatencyMs / networkDownloadKbps / networkUploadKbps).
+     */
+    public static String getNetworkThrottle() {
+        String profile = get("networkThrottle");
+        return profile == null || profile.isBlank() ? "none" : profile.trim();
+    }
+
+    public static int getNetworkLatencyMs() {
+        return getInt("networkLatencyMs", 0);
+    }
+
+    public static int getNetworkDownloadKbps() {
+        return getInt("networkDownloadKbps", 10000);
+    }
+
+    public static int getNetworkUploadKbps() {
+        return getInt("networkUploadKbps", 5000);
+    }
+
+    // --- Navigation ---
+
+    /**
+     * load (default), networkIdle, domStable or selector; see ReadyNavigator.
+     */
+    public static String getNavigationReadyMode() {
+        return get("navigationReadyMode");
+    }
+
+    /**
+     * Quiet period for networkIdle / domStable.
+     */
+    public static int getNavigationIdleMs() {
+        return getInt("navigationIdleMs", 500);
+    }
+
+    /**
+     * CSS selector that marks the app as rendered, for navigationReadyMode=selector.
+     */
+    public static String getNavigationReadySelector() {
+        return get("navigationReadySelector");
+    }
+
+    public static int getNavigationReadyTimeout() {
+        return getInt("navigationReadyTimeout", 30);
+    }
+
+    // --- Action journal ---
+
+    /**
+     * Entries kept per thread before unflushed ones are overwritten.
+     */
+    public static int getJournalCapacity() {
+        return getInt("journalCapacity", 512);
+    }
+
+    public static int getJournalFlushMillis() {
+        return getInt("journalFlushMillis", 200);
+    }
+
+    /**
+     * Add every UI action as a nested Allure step. Off by default: each step allocates and goes through
+     * Allure's locks on the test thread.
+     */
+    public static boolean isJournalAllureSteps() {
+        return getBoolean("journalAllureSteps", false);
+    }
+
+    // --- Session cache ---
+
+    /**
+     * How long a captured login stays valid before a fresh UI login is forced.
+     */
+    public static int getSessionCacheTtlMinutes() {
+        return getInt("sessionCacheTtlMinutes", 30);
+    }
+
+    /**
+     * Also keep snapshots in sessionCacheDir so later runs can reuse them.
+     */
+    public static boolean isSessionCacheOnDisk() {
+        return getBoolean("sessionCacheOnDisk", false);
+    }
+
+    public static String getSessionCacheDir() {
+        String dir = get("sessionCacheDir");
+        return dir == null || dir.isBlank() ? "target/session-cache" : dir.trim();
+    }
+
+    /**
+     * Light same-origin page opened to write cookies / storage before the real navigation.
+     */
+    public static String getSessionRestorePath() {
+        String path = get("sessionRestorePath");
+        return path == null || path.isBlank() ? "/favicon.ico" : path.trim();
+    }
+
+    // --- Artifact writer ---
+
+    /**
+     * Artifacts (screenshots, attachments, videos) that may wait for the writer threads.
+     */
+    public static int getArtifactQueueCapacity() {
+        return getInt("artifactQueueCapacity", 64);
+    }
+
+    public static int getArtifactWriterThreads() {
+        return getInt("artifactWriterThreads", 2);
+    }
+
+    /**
+     * What a full queue does to the test thread: block, dropOldest or spill.
+     */
+    public static String getArtifactBackpressure() {
+        String mode = get("artifactBackpressure");
+        return mode == null || mode.isBlank() ? "block" : mode.trim();
+    }
+
+    public static String getArtifactSpillDir() {
+        String dir = get("artifactSpillDir");
+        return dir == null || dir.isBlank() ? "target/artifact-spill" : dir.trim();
+    }
+
+    /**
+     * How long the end of the suite waits for queued artifacts to be written.
+     */
+    public static int getArtifactFlushTimeoutSeconds() {
+        return getInt("artifactFlushTimeoutSeconds", 60);
+    }
+
+    // --- Artifact store ---
+
+    /**
+     * Root of the content-addressed screenshot / video store; keep it outside src/.
+     */
+    public static String getArtifactStoreDir() {
+        String dir = get("artifactStoreDir");
+        return dir == null || dir.isBlank() ? "target/artifact-store" : dir.trim();
+    }
+
+    /**
+     * Size budget of the store; least recently used objects are deleted above it.
+     */
+    public static long getArtifactStoreMaxBytes() {
+        return getInt("artifactStoreMaxMb", 500) * 1024L * 1024L;
+    }
+
+    public static int getArtifactStoreMaxAgeDays() {
+        return getInt("artifactStoreMaxAgeDays", 14);
+    }
+
+    // --- Video recording ---
+
+    /**
+     * ffmpeg (desktop capture, Windows only), screencast (per browser session through CDP) or none.
+     */
+    public static String getVideoBackend() {
+        String backend = get("videoBackend");
+        return backend == null || backend.isBlank() ? "ffmpeg" : backend.trim().toLowerCase();
+    }
+
+    /**
+     * Frame rate of screencast videos; an idle page costs a few bytes per frame, not a picture.
+     */
+    public static int getVideoFps() {
+        return getInt("videoFps", 10);
+    }
+
+    public static int getVideoJpegQuality() {
+        return getInt("videoJpegQuality", 60);
+    }
+
+    public static int getVideoMaxWidth() {
+        return getInt("videoMaxWidth", 1280);
+    }
+
+    public static int getVideoMaxHeight() {
+        return getInt("videoMaxHeight", 720);
+    }
+
+    /**
+     * Screencast only: seconds kept in memory per session (the rest is dropped); the video is written to disk
+     * only for failed tests. 0 records the whole test to disk.
+     */
+    public static int getVideoRingSeconds() {
+        return getInt("videoRingSeconds", 0);
+    }
+
+    /**
+     * Memory cap of one session's ring buffer; the oldest frames are dropped to stay below it.
+     */
+    public static int getVideoRingMaxBytes() {
+        return getInt("videoRingMaxMb", 16) * 1024 * 1024;
+    }
+
+    /**
+     * Screencast only: mjpeg (AVI written in-process) or ffmpeg (frames piped to an ffmpeg encoder, MP4).
+     */
+    public static String getVideoEncoder() {
+        String encoder = get("videoEncoder");
+        return encoder == null || encoder.isBlank() ? "mjpeg" : encoder.trim().toLowerCase();
+    }
+
+    /**
+     * Idle ffmpeg pipe encoders started ahead of time, so a test does not wait for a process launch.
+     */
+    public static int getVideoEncoderPoolSize() {
+        return getInt("videoEncoderPoolSize", 2);
+    }
+
+    /**
+     * How long a recorder may take to finalize its file before it is killed.
+     */
+    public static int getVideoStopTimeoutSeconds() {
+        return getInt("videoStopTimeoutSeconds", 15);
+    }
+
+    public static String getFfmpegPath() {
+        String path = get("ffmpegPath");
+        return path == null || path.isBlank() ? "ffmpeg" : path.trim();
+    }
+
+    // --- Metrics ---
+
+    /**
+     * Time every WebDriver command (see CommandMetrics).
+     */
+    public static boolean isCommandMetricsEnabled() {
+        return getBoolean("commandMetricsEnabled", true);
+    }
+
+    /**
+     * Folder for machine-readable run metrics.
+     */
+    public static String getMetricsDir() {
+        String dir = get("metricsDir");
+        return dir == null || dir.isBlank() ? "target/metrics" : dir.trim();
+    }
+
 }
@@ -0,0 +1,38 @@
+package CoreFramework.listeners;
+
+import CoreFramework.config.ConfigManager;
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+
+import java.util.List;
+
+/**
+ * Applies the parallel settings from ConfigManager to every suite before it runs,
+ * so the thread count can be changed with -DthreadCount=8 instead of editing testng.xml.
+ *
+ * Must be registered in testng.xml (IAlterSuiteListener is ignored in @Listeners).
+ */
+public class SuiteConfigurator implements IAlterSuiteListener {
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        XmlSuite.ParallelMode mode = XmlSuite.ParallelMode.getValidParallel(ConfigManager.getParallelMode());
+        int threadCount = ConfigManager.getThreadCount();
+        int dataProviderThreadCount = ConfigManager.getDataProviderThreadCount();
+
+        for (XmlSuite suite : suites) {
+            suite.setParallel(mode);
+            suite.setThreadCount(threadCount);
+            suite.setDataProviderThreadCount(dataProviderThreadCount);
+            System.out.println("[SuiteConfigurator] Suite '" + suite.getName() + "': parallel=" + mode
+                    + ", threadCount=" + threadCount
+                    + ", dataProviderThreadCount=" + dataProviderThreadCount);
+        }
+
+        if (mode.isParallel() && ConfigManager.isDriverPoolEnabled()
+                && ConfigManager.getDriverPoolMaxSize() < threadCount) {
+            System.out.println("[SuiteConfigurator] driverPoolMaxSize (" + ConfigManager.getDriverPoolMaxSize()
+                    + ") is lower than threadCount (" + threadCount + "); extra workers will wait for a session.");
+        }
+    }
+}
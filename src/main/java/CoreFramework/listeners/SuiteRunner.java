@@ -0,0 +1,29 @@
+package CoreFramework.listeners;
+
+import org.testng.TestNG;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs TestNG suites with VirtualThreadExecutorFactory installed.
+ *
+ * Surefire cannot pass a thread-pool factory to TestNG, so the virtual-threads Maven profile
+ * starts the suite through this class instead:
+ *   mvn -Pvirtual-threads verify
+ *
+ * Arguments: suite XML files (default: testng.xml). Exit code is TestNG's status (0 = all passed).
+ */
+public class SuiteRunner {
+
+    public static void main(String[] args) {
+        List<String> suites = args.length == 0 ? List.of("testng.xml") : Arrays.asList(args);
+
+        TestNG testng = new TestNG();
+        testng.setExecutorServiceFactory(new VirtualThreadExecutorFactory());
+        testng.setTestSuites(suites);
+        testng.run();
+
+        System.exit(testng.getStatus());
+    }
+}
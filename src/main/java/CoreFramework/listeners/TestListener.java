@@ -1,37 +1,121 @@
 package CoreFramework.listeners;
 
+import CoreFramework.utils.ArtifactStore;
+import CoreFramework.utils.LatencyHistogram;
+import CoreFramework.utils.RecorderProcesses;
+import CoreFramework.utils.ScreencastRecorder;
 import CoreFramework.utils.VideoRecorder;
-import CoreFramework.utils.reporting.EmailSender;
+import CoreFramework.utils.reporting.ActionJournal;
+import CoreFramework.utils.reporting.ArtifactWriter;
+import CoreFramework.utils.reporting.EmailDispatcher;
+import CoreFramework.utils.reporting.Screenshot;
+import CoreFramework.utils.reporting.FailureDigest;
 import CoreFramework.utils.reporting.StepLogger;
 import CoreFramework.config.ConfigManager;
 import  CoreFramework.utils.reporting.ReportManager;
 
 import java.lang.reflect.Method;
-import java.util.List;
+import java.util.concurrent.TimeUnit;
+import CoreFramework.actions.CommandMetrics;
 import CoreFramework.actions.DriverFactory;
+import CoreFramework.actions.ElementCache;
+import CoreFramework.actions.NetworkShaper;
+import CoreFramework.actions.ReadyNavigator;
+import CoreFramework.actions.SessionCache;
+import CoreFramework.actions.UIActions;
+import CoreFramework.actions.WaitEngine;
 import io.qameta.allure.Severity;
 import io.qameta.allure.SeverityLevel;
-import org.openqa.selenium.OutputType;
-import org.openqa.selenium.TakesScreenshot;
-import org.openqa.selenium.WebDriver;
 
 
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
 
-public class TestListener implements ITestListener {
+public class TestListener implements ITestListener, ISuiteListener {
+
+    private static final int RECENT_ACTIONS_IN_EMAIL = 15;
+
+    // Time a failing test's thread spends on its artifacts (capture + hand-off to ArtifactWriter)
+    private static final LatencyHistogram FAILURE_ARTIFACTS = new LatencyHistogram();
+
+    @Override
+    public void onStart(ISuite suite) {
+        // Launch pooled browsers in the background while TestNG prepares the first tests
+        DriverFactory.warmUp();
+        if (ConfigManager.getVideoBackend().equals("screencast") && ConfigManager.getVideoEncoder().equals("ffmpeg")) {
+            RecorderProcesses.warmUp(ConfigManager.getVideoFps());
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        // Quit pooled browser sessions once the whole suite is done
+        DriverFactory.shutdown();
+        System.out.println("[WaitEngine] " + WaitEngine.metricsSummary());
+        System.out.println("[ElementCache] " + ElementCache.metricsSummary());
+        System.out.println("[UIActions] " + UIActions.batchMetricsSummary());
+        System.out.println("[SessionCache] " + SessionCache.metricsSummary());
+        ArtifactWriter.flush();
+        System.out.println("[ReportManager] " + ReportManager.screenshotMetricsSummary());
+        System.out.println("[ReportManager] Failure artifacts on the test thread: " + FAILURE_ARTIFACTS.toMap());
+        System.out.println("[ArtifactWriter] " + ArtifactWriter.metricsSummary());
+        System.out.println("[ArtifactWriter] Written to " + ArtifactWriter.writeMetrics());
+        // Retention runs after the flush so this run's artifacts count as most recently used
+        ArtifactStore.shared().prune();
+        System.out.println("[ArtifactStore] " + ArtifactStore.shared().metricsSummary());
+        FailureDigest.flush();
+        System.out.println("[FailureDigest] " + FailureDigest.metricsSummary());
+        if (EmailDispatcher.isSharedStarted()) {
+            EmailDispatcher.shared().flush(ConfigManager.getEmailDrainTimeoutSeconds(), TimeUnit.SECONDS);
+            System.out.println("[EmailDispatcher] " + EmailDispatcher.shared().metricsSummary());
+        }
+        if (ConfigManager.getVideoBackend().equals("screencast")) {
+            System.out.println("[ScreencastRecorder] " + ScreencastRecorder.metricsSummary());
+        }
+        if (!ConfigManager.getVideoBackend().equals("none")) {
+            System.out.println("[VideoRecorder] Recorder overhead on the test thread: " + VideoRecorder.overheadSummary());
+            RecorderProcesses.shutdown();
+            System.out.println("[RecorderProcesses] " + RecorderProcesses.metricsSummary());
+        }
+        ActionJournal.flush();
+        System.out.println("[ActionJournal] " + ActionJournal.metricsSummary());
+        if (ReadyNavigator.Mode.fromConfig() != ReadyNavigator.Mode.LOAD) {
+            System.out.println("[ReadyNavigator] " + ReadyNavigator.metricsSummary());
+        }
+        if (NetworkShaper.isConfigured()) {
+            System.out.println("[NetworkShaper] " + NetworkShaper.metricsSummary());
+        }
+        if (ConfigManager.isCommandMetricsEnabled()) {
+            System.out.println("[CommandMetrics] " + CommandMetrics.metricsSummary());
+            System.out.println("[CommandMetrics] Written to " + CommandMetrics.writeSuiteReport());
+        }
+    }
 
     @Override
     public void onTestStart(ITestResult result) {
         String testName = result.getMethod().getMethodName();
+        // Worker threads are reused, so drop anything a previous test left behind
+        StepLogger.clear();
+        CommandMetrics.startTest();
         VideoRecorder.startRecording(testName);
     }
 
     @Override
     public void onTestSuccess(ITestResult result) {
-        String videoPath = VideoRecorder.stopRecording();
-        // Delete videos for passed tests to save space
-        VideoRecorder.deleteIfExists(videoPath);
+        // Passed tests keep no video (in ring mode it never reached the disk)
+        VideoRecorder.discardRecording();
+        VideoRecorder.reportOverhead(result.getMethod().getMethodName());
+        attachCommandMetrics(result);
+        StepLogger.clear();
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        VideoRecorder.discardRecording();
+        VideoRecorder.reportOverhead(result.getMethod().getMethodName());
+        StepLogger.clear();
     }
 
     @Override
@@ -39,98 +123,43 @@ public class TestListener implements ITestListener {
         String testName  = result.getMethod().getMethodName();
         String className = result.getTestClass().getName();
         String description = result.getMethod().getDescription();
-        String env = ConfigManager.getEnv();
         String severity = getSeverity(result);
 
-        //Allure pic attachement
-        ReportManager.attachFailureScreenshot(testName);
-
-//        //Allure Video Record
-//        String videoPath = VideoRecorder.stopRecording();
-//        ReportManager.attachFailureVideoRecord(testName, videoPath);
-
-
-        // 1) Capture screenshot bytes (this will be used by EmailSender)
-        byte[] screenshotBytes = captureScreenshotBytes();
-
-        // 2) Get steps from StepLogger
-        List<String> steps = StepLogger.getSteps();
-
-        // 3) Build HTML body with <img src="cid:screenshot">
-        StringBuilder html = new StringBuilder();
-        html.append("<html><body style=\"font-family: Arial, sans-serif;\">");
-
-        html.append("<h2 style=\"color:#c0392b;\">Automated test FAILED</h2>");
-
-        html.append("<p>");
-        html.append("<b>Environment:</b> ").append(env).append("<br/>");
-        html.append("<b>Severity:</b> ").append(escapeHtml(severity)).append("<br/>");
-        html.append("<b>Class:</b> ").append(className).append("<br/>");
-        html.append("<b>Test:</b> ").append(testName).append("</p>");
-
-        if (description != null && !description.isBlank()) {
-            html.append("<p><b>Description:</b> ")
-                    .append(escapeHtml(description))
-                    .append("</p>");
-        }
-
-        html.append("<h3>Steps</h3>");
-        if (steps == null || steps.isEmpty()) {
-            html.append("<p><i>No steps were logged.</i></p>");
-        } else {
-            html.append("<ol>");
-            for (String step : steps) {
-                html.append("<li>").append(escapeHtml(step)).append("</li>");
-            }
-            html.append("</ol>");
-        }
-
-        html.append("<h3>Screenshot</h3>");
-        if (screenshotBytes != null && screenshotBytes.length > 0) {
-            html.append("<p>The screenshot at the moment of failure:</p>");
-            // IMPORTANT: this cid "screenshot" must match Content-ID in EmailSender
-            html.append("<img src=\"cid:screenshot\" style=\"max-width:900px;border:1px solid #ccc;\"/>");
-        } else {
-            html.append("<p><i>Screenshot not available.</i></p>");
+        // One capture, shared by the Allure attachment, the file on disk and the email
+        long artifactsStart = System.nanoTime();
+        Screenshot screenshot = ReportManager.captureFailureScreenshot(testName);
+        attachCommandMetrics(result);
+        FAILURE_ARTIFACTS.record(System.nanoTime() - artifactsStart);
+
+        // The screenshot is already attached, so only the video is added here
+        String videoPath = VideoRecorder.keep(VideoRecorder.stopRecording(), testName);
+        VideoRecorder.reportOverhead(testName);
+        if (videoPath != null) {
+            ReportManager.attachVideo("Video - " + testName, videoPath);
         }
 
-        html.append("<p style=\"margin-top:20px;\">Best regards,<br/>Automation Framework</p>");
-        html.append("</body></html>");
-
-        // 4) Send email with screenshot
-        String[] recipients = ConfigManager.getNotificationEmails();
-        String subject = "[Automation Failure][" + severity + "] "
-                + testName+ " is not working on production";
-
-        EmailSender.sendFailureEmailHtmlWithScreenshot(
-                recipients,
-                subject,
-                html.toString(),
-                screenshotBytes
-        );
+        // Grouped with other failures of the same signature; FailureDigest decides when to email
+        String signature = FailureDigest.signatureOf(result.getThrowable(), ActionJournal.lastFailedTarget());
+        FailureDigest.report(new FailureDigest.Failure(
+                testName,
+                className,
+                description,
+                severity,
+                signature,
+                result.getThrowable() == null ? null : result.getThrowable().getClass().getName(),
+                StepLogger.getSteps(),
+                ActionJournal.recentActions(RECENT_ACTIONS_IN_EMAIL),
+                screenshot));
 
         StepLogger.clear();
     }
 
 
 
-    private byte[] captureScreenshotBytes() {
-        try {
-            WebDriver driver = DriverFactory.getDriver();
-            if (driver == null) {
-                System.out.println("[TestListener] WebDriver is null, cannot capture screenshot.");
-                return null;
-            }
-
-            if (!(driver instanceof TakesScreenshot)) {
-                System.out.println("[TestListener] WebDriver does not support TakesScreenshot.");
-                return null;
-            }
-
-            return ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
-        } catch (Exception e) {
-            System.out.println("[TestListener] Failed to capture screenshot: " + e.getMessage());
-            return null;
+    private void attachCommandMetrics(ITestResult result) {
+        if (ConfigManager.isCommandMetricsEnabled()) {
+            String testName = result.getMethod().getMethodName();
+            ReportManager.attachJson("Command latency", CommandMetrics.testSummaryJson(testName));
         }
     }
 
@@ -151,24 +180,9 @@ public class TestListener implements ITestListener {
         return "UNSPECIFIED";
     }
 
-    private String escapeHtml(String input) {
-        if (input == null) return "";
-        return input
-                .replace("&", "&amp;")
-                .replace("<", "&lt;")
-                .replace(">", "&gt;")
-                .replace("\"", "&quot;");
-    }
-
 
 }
 
 
-//    @Override
-//    public void onTestSkipped(ITestResult result) {
-//        String videoPath = VideoRecorder.stopRecording();
-//        VideoRecorder.deleteIfExists(videoPath);
-//    }
-
    
 
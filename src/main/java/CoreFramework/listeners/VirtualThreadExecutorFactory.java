@@ -0,0 +1,56 @@
+package CoreFramework.listeners;
+
+import CoreFramework.config.ConfigManager;
+import org.testng.IExecutorServiceFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TestNG executor factory that runs test workers on virtual threads (Java 21+).
+ *
+ * Each WebDriver command is a blocking HTTP round-trip, so a worker spends almost all its time
+ * waiting. With virtual workers, threadCount can be raised far beyond the number of platform
+ * threads the JVM could afford. The pool size still follows threadCount, so TestNG's parallel
+ * limits are unchanged.
+ *
+ * The framework is built for Java 17, so virtual threads are created through reflection.
+ * When threadMode=platform, or the JVM has no virtual threads, TestNG's own thread factory is used.
+ */
+public class VirtualThreadExecutorFactory implements IExecutorServiceFactory {
+
+    @Override
+    public ExecutorService create(int corePoolSize, int maxPoolSize, long keepAliveTime, TimeUnit unit,
+                                  BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory) {
+        ThreadFactory factory = threadFactory;
+        if (ConfigManager.isVirtualThreadMode()) {
+            ThreadFactory virtual = virtualThreadFactory("testng-virtual-");
+            if (virtual != null) {
+                factory = virtual;
+            } else {
+                System.out.println("[VirtualThreadExecutorFactory] Virtual threads need Java 21+; "
+                        + "running on platform threads.");
+            }
+        }
+        return new ThreadPoolExecutor(corePoolSize, maxPoolSize, keepAliveTime, unit, workQueue, factory);
+    }
+
+    /**
+     * Thread.ofVirtual().name(prefix, 0).factory(), or null when the JVM has no virtual threads.
+     */
+    public static ThreadFactory virtualThreadFactory(String namePrefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            Method factory = builderType.getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
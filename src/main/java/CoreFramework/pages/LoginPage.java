@@ -1,8 +1,18 @@
 package CoreFramework.pages;
 
+import CoreFramework.actions.DriverFactory;
+import CoreFramework.actions.FormField;
+import CoreFramework.actions.SessionCache;
 import CoreFramework.actions.UIActions;
+import CoreFramework.config.ConfigManager;
 import CoreFramework.utils.reporting.StepLogger;
 import io.qameta.allure.Step;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
 
 public class LoginPage {
 
@@ -23,7 +33,7 @@ public class LoginPage {
     public LoginPage(){uiActions=new UIActions();}
 
     @Step("Go to the login Page")
-    public void navigateToLoginPage(){
+    public void navigateToLoginPage() {
         StepLogger.logStep("Go to the login Page");
         uiActions.navigateToPage(loginPageURL);
 
@@ -48,11 +58,62 @@ public class LoginPage {
         uiActions.click(UIActions.SelectorType.cssSelector,loginButtonSelector);
     }
 
+    @Step("Enter the user mail: {email} and password: {password}")
+    public void fillLoginForm(String email, String password) throws InterruptedException {
+        StepLogger.logStep("Enter the user mail: " + email);
+        StepLogger.logStep("Enter the user password: " + password);
+        // One script round-trip for both fields instead of find/clear/sendKeys per field
+        uiActions.setTexts(List.of(
+                FormField.of(UIActions.SelectorType.name, emailFieldSelector, email),
+                FormField.of(UIActions.SelectorType.name, passwordFieldSelector, password)));
+    }
+
     public void loginToWebsite(String email,String password) throws InterruptedException {
-        enterEmail(email);
-        enterPassword(password);
+        fillLoginForm(email, password);
         clickLoginButton();
     }
+
+    /**
+     * Log in through the UI only the first time per account; afterwards the cached cookies and
+     * storage are injected into the session (see SessionCache). Leaves the browser logged in.
+     */
+    @Step("Log in as {email} (cached session)")
+    public void loginWithCachedSession(String email, String password) throws InterruptedException {
+        StepLogger.logStep("Log in as " + email + " (cached session)");
+        SessionCache.restoreOrLogin(DriverFactory.getDriver(), email + "\n" + password, () -> {
+            navigateToLoginPage();
+            loginToWebsite(email, password);
+            waitForLoginToComplete();
+        }, this::isLoggedIn);
+    }
+
+    public void waitForLoginToComplete() {
+        new WebDriverWait(DriverFactory.getDriver(), Duration.ofSeconds(ConfigManager.getExplicitWait()))
+                .until(driver -> !driver.getCurrentUrl().contains("/login"));
+    }
+
+    /**
+     * Opens the login page and waits (up to explicitWait) for one of two signals: a logged-in user is
+     * sent away from it, a logged-out user is shown the login form. A form that is simply not rendered
+     * yet (SPA, readyNavigation) proves nothing, so no signal within the wait counts as logged out.
+     */
+    public boolean isLoggedIn() {
+        uiActions.navigateToPage(loginPageURL);
+        try {
+            // until() keeps polling on null / false, so the answer is wrapped in an Optional
+            return new WebDriverWait(DriverFactory.getDriver(), Duration.ofSeconds(ConfigManager.getExplicitWait()))
+                    .until(driver -> {
+                        if (!driver.getCurrentUrl().contains("/login")) {
+                            return Optional.of(true);
+                        }
+                        return uiActions.isElementPresent(UIActions.SelectorType.name, emailFieldSelector)
+                                ? Optional.of(false) : null;
+                    })
+                    .get();
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
     public String getEmailOrPasswordErrorMessage() throws InterruptedException {
         return uiActions.getText(UIActions.SelectorType.cssSelector,emailOrPasswordErrorMessageSelector);
     }
@@ -63,4 +124,15 @@ public class LoginPage {
         return uiActions.getText(UIActions.SelectorType.xpath,passwordFieldErrorMessage);
     }
 
+    // Presence checks return immediately, so asserting that an error is NOT shown stays fast
+    public boolean isEmailOrPasswordErrorDisplayed() {
+        return uiActions.isElementPresent(UIActions.SelectorType.cssSelector,emailOrPasswordErrorMessageSelector);
+    }
+    public boolean isEmailFieldErrorDisplayed() {
+        return uiActions.isElementPresent(UIActions.SelectorType.xpath,emailFieldErrorMessage);
+    }
+    public boolean isPasswordFieldErrorDisplayed() {
+        return uiActions.isElementPresent(UIActions.SelectorType.xpath,passwordFieldErrorMessage);
+    }
+
 }
@@ -0,0 +1,25 @@
+package CoreFramework.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds artifact file names that stay unique when tests run in parallel.
+ * Two workers failing in the same millisecond no longer overwrite each other's files.
+ *
+ * Format: <testName>_<millis>_t<threadId>_<sequence>.<extension>
+ */
+public final class ArtifactNames {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private ArtifactNames() {
+    }
+
+    public static String unique(String testName, String extension) {
+        return testName
+                + "_" + System.currentTimeMillis()
+                + "_t" + Thread.currentThread().getId()
+                + "_" + SEQUENCE.incrementAndGet()
+                + "." + extension;
+    }
+}
@@ -0,0 +1,307 @@
+package CoreFramework.utils;
+
+import CoreFramework.config.ConfigManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed store for screenshots and videos, outside src/ (artifactStoreDir).
+ *
+ * Layout:
+ *  - objects/ab/abcdef....png   one file per distinct content, named by its SHA-256
+ *  - refs/<testName>_<millis>_t<thread>_<seq>.<hash12>.png   per-test hard link to the object
+ *  - work/                      files still being written (e.g. a running video recording)
+ *
+ * Behavior:
+ *  - store(stream, ...) / adopt(file, ...): identical captures are kept once; a repeat only adds a link
+ *    and refreshes the object's last-used time
+ *  - prune(): deletes objects (and their links) older than artifactStoreMaxAgeDays, then the least
+ *    recently used ones until the store fits artifactStoreMaxBytes
+ *  - where hard links are not supported, the reference is a copy (counted in metricsSummary())
+ *
+ * The framework uses shared(), configured from config.properties; tests can create a store on their own root.
+ */
+public final class ArtifactStore {
+
+    private static final int SHORT_HASH = 12;
+
+    private static volatile ArtifactStore shared;
+
+    private final Path root;
+    private final long maxBytes;
+    private final long maxAgeMillis;
+
+    private final AtomicLong stored = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+    private final AtomicLong bytesStored = new AtomicLong();
+    private final AtomicLong bytesSaved = new AtomicLong();
+    private final AtomicLong copiedRefs = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private final AtomicLong bytesEvicted = new AtomicLong();
+
+    public ArtifactStore(Path root, long maxBytes, int maxAgeDays) {
+        this.root = root;
+        this.maxBytes = maxBytes;
+        this.maxAgeMillis = TimeUnit.DAYS.toMillis(maxAgeDays);
+    }
+
+    /**
+     * The store configured from config.properties (artifactStoreDir / MaxMb / MaxAgeDays), created on first use.
+     */
+    public static ArtifactStore shared() {
+        ArtifactStore current = shared;
+        if (current == null) {
+            synchronized (ArtifactStore.class) {
+                current = shared;
+                if (current == null) {
+                    current = new ArtifactStore(
+                            Paths.get(ConfigManager.getArtifactStoreDir()),
+                            ConfigManager.getArtifactStoreMaxBytes(),
+                            ConfigManager.getArtifactStoreMaxAgeDays());
+                    shared = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Store the stream's content for the given test and return the per-test reference file.
+     */
+    public Path store(InputStream data, String testName, String extension) throws IOException {
+        Path tmp = Files.createTempFile(createDir(workDir()), "incoming", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(tmp), digest)) {
+                size = data.transferTo(out);
+            }
+            return commit(tmp, HexFormat.of().formatHex(digest.digest()), size, testName, extension);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Move a finished file (e.g. from newWorkFile) into the store and return the per-test reference file.
+     */
+    public Path adopt(Path file, String testName, String extension) throws IOException {
+        MessageDigest digest = sha256();
+        long size;
+        try (InputStream in = Files.newInputStream(file);
+             OutputStream sink = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+            size = in.transferTo(sink);
+        }
+        Path ref = commit(file, HexFormat.of().formatHex(digest.digest()), size, testName, extension);
+        // Still there when the content was already stored
+        Files.deleteIfExists(file);
+        return ref;
+    }
+
+    /**
+     * A unique file under work/ for artifacts that are written before their content is known.
+     */
+    public Path newWorkFile(String testName, String extension) {
+        try {
+            return createDir(workDir()).resolve(ArtifactNames.unique(testName, extension));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot create " + workDir(), e);
+        }
+    }
+
+    /**
+     * Apply the age and size retention. Returns the number of objects deleted.
+     */
+    public synchronized int prune() {
+        long now = System.currentTimeMillis();
+        long budget = maxBytes;
+
+        List<StoredObject> objects = listObjects();
+        // Least recently used first
+        objects.sort(Comparator.comparingLong(o -> o.lastUsedMillis));
+
+        long total = 0;
+        for (StoredObject object : objects) {
+            total += object.size;
+        }
+
+        int deleted = 0;
+        for (StoredObject object : objects) {
+            boolean tooOld = now - object.lastUsedMillis > maxAgeMillis;
+            if (!tooOld && total <= budget) {
+                break;
+            }
+            if (delete(object)) {
+                total -= object.size;
+                deleted++;
+            }
+        }
+        pruneWorkDir(now);
+        return deleted;
+    }
+
+    public String metricsSummary() {
+        return "stored=" + stored.get()
+                + ", deduplicated=" + deduplicated.get()
+                + ", bytesStored=" + bytesStored.get()
+                + ", bytesSaved=" + bytesSaved.get()
+                + ", copiedRefs=" + copiedRefs.get()
+                + ", evicted=" + evicted.get()
+                + ", bytesEvicted=" + bytesEvicted.get();
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    // ================= INTERNAL IMPLEMENTATION =================
+
+    private Path commit(Path source, String hash, long size, String testName, String extension)
+            throws IOException {
+        String ext = extension.toLowerCase();
+        Path object = objectsDir().resolve(hash.substring(0, 2)).resolve(hash + "." + ext);
+        createDir(object.getParent());
+
+        boolean created;
+        synchronized (this) {
+            if (Files.exists(object)) {
+                created = false;
+            } else {
+                Files.move(source, object, StandardCopyOption.ATOMIC_MOVE);
+                created = true;
+            }
+            // The modification time doubles as "last used" for the LRU retention
+            Files.setLastModifiedTime(object, FileTime.fromMillis(System.currentTimeMillis()));
+        }
+        if (created) {
+            stored.incrementAndGet();
+            bytesStored.addAndGet(size);
+        } else {
+            deduplicated.incrementAndGet();
+            bytesSaved.addAndGet(size);
+        }
+
+        Path ref = createDir(refsDir()).resolve(
+                ArtifactNames.unique(testName, hash.substring(0, SHORT_HASH) + "." + ext));
+        try {
+            Files.createLink(ref, object);
+        } catch (UnsupportedOperationException | IOException e) {
+            // File system without hard links: fall back to a real copy
+            Files.copy(object, ref);
+            copiedRefs.incrementAndGet();
+        }
+        return ref;
+    }
+
+    private boolean delete(StoredObject object) {
+        String fileName = object.path.getFileName().toString();
+        int dot = fileName.indexOf('.');
+        String refSuffix = "." + fileName.substring(0, SHORT_HASH) + fileName.substring(dot);
+        try {
+            Files.deleteIfExists(object.path);
+            if (Files.isDirectory(refsDir())) {
+                try (DirectoryStream<Path> refs = Files.newDirectoryStream(refsDir(), "*" + refSuffix)) {
+                    for (Path ref : refs) {
+                        Files.deleteIfExists(ref);
+                    }
+                }
+            }
+            evicted.incrementAndGet();
+            bytesEvicted.addAndGet(object.size);
+            return true;
+        } catch (IOException e) {
+            System.out.println("[ArtifactStore] Failed to delete " + object.path + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private List<StoredObject> listObjects() {
+        List<StoredObject> objects = new ArrayList<>();
+        if (!Files.isDirectory(objectsDir())) {
+            return objects;
+        }
+        try (Stream<Path> files = Files.walk(objectsDir(), 2)) {
+            files.filter(Files::isRegularFile).forEach(path -> {
+                try {
+                    objects.add(new StoredObject(path, Files.size(path),
+                            Files.getLastModifiedTime(path).toMillis()));
+                } catch (IOException ignored) {
+                    // Deleted concurrently
+                }
+            });
+        } catch (IOException e) {
+            System.out.println("[ArtifactStore] Failed to list " + objectsDir() + ": " + e.getMessage());
+        }
+        return objects;
+    }
+
+    private void pruneWorkDir(long now) {
+        if (!Files.isDirectory(workDir())) {
+            return;
+        }
+        // Leftovers of crashed runs; anything still in use is far younger than the age limit
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(workDir())) {
+            for (Path file : files) {
+                if (now - Files.getLastModifiedTime(file).toMillis() > maxAgeMillis) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("[ArtifactStore] Failed to clean " + workDir() + ": " + e.getMessage());
+        }
+    }
+
+    private Path objectsDir() {
+        return root.resolve("objects");
+    }
+
+    private Path refsDir() {
+        return root.resolve("refs");
+    }
+
+    private Path workDir() {
+        return root.resolve("work");
+    }
+
+    private static Path createDir(Path dir) throws IOException {
+        return Files.createDirectories(dir);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class StoredObject {
+        private final Path path;
+        private final long size;
+        private final long lastUsedMillis;
+
+        private StoredObject(Path path, long size, long lastUsedMillis) {
+            this.path = path;
+            this.size = size;
+            this.lastUsedMillis = lastUsedMillis;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package CoreFramework.utils;
+
+import java.io.IOException;
+
+/**
+ * Keeps the last N slots of a screencast (JPEG pictures and "same picture again" slots) in a fixed memory budget.
+ *
+ * Behavior:
+ *  - pictures are copied into ONE pre-allocated byte array used as a circular buffer, so memory per session is
+ *    capped at maxBytes no matter how long the test runs
+ *  - a picture that does not fit evicts the oldest pictures; a time window of maxSlots evicts (or shortens)
+ *    the oldest ones as well, so an idle page keeps its last picture instead of losing it
+ *  - writeTo(sink) encodes what is left into a video (on failure); clear() forgets everything (on success)
+ *
+ * Rings are meant to be reused across tests (see ScreencastRecorder), so the array is allocated once per session.
+ * Not thread-safe; the owning Recording synchronizes.
+ */
+public final class FrameRing {
+
+    private final byte[] arena;
+    // Circular list of pictures: where each one is in the arena, its size and how many slots it covers
+    private final int[] offsets;
+    private final int[] lengths;
+    private final int[] slots;
+    private final int maxSlots;
+
+    private int first;
+    private int count;
+    private int writePos;
+    private int totalSlots;
+    private long evicted;
+
+    public FrameRing(int maxBytes, int maxSlots) {
+        this.arena = new byte[Math.max(1, maxBytes)];
+        this.maxSlots = Math.max(1, maxSlots);
+        this.offsets = new int[this.maxSlots + 1];
+        this.lengths = new int[this.maxSlots + 1];
+        this.slots = new int[this.maxSlots + 1];
+    }
+
+    /**
+     * Add a picture for the next slot; returns false when a single picture is larger than the whole budget
+     * (or empty).
+     */
+    public boolean append(byte[] jpeg) {
+        int offset = place(jpeg.length);
+        if (offset < 0) {
+            return false;
+        }
+        System.arraycopy(jpeg, 0, arena, offset, jpeg.length);
+        writePos = offset + jpeg.length;
+        int index = (first + count) % offsets.length;
+        offsets[index] = offset;
+        lengths[index] = jpeg.length;
+        slots[index] = 1;
+        count++;
+        addSlot();
+        return true;
+    }
+
+    /**
+     * Show the latest picture for one more slot (ignored before the first picture).
+     */
+    public void repeat() {
+        if (count == 0) {
+            return;
+        }
+        slots[(first + count - 1) % offsets.length]++;
+        addSlot();
+    }
+
+    /**
+     * Write the kept pictures, oldest first, with their repeats.
+     */
+    public void writeTo(VideoSink sink) throws IOException {
+        for (int i = 0; i < count; i++) {
+            int index = (first + i) % offsets.length;
+            sink.writeFrame(arena, offsets[index], lengths[index]);
+            for (int repeat = 1; repeat < slots[index]; repeat++) {
+                sink.repeatFrame();
+            }
+        }
+    }
+
+    public void clear() {
+        first = 0;
+        count = 0;
+        writePos = 0;
+        totalSlots = 0;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public int getCapacityBytes() {
+        return arena.length;
+    }
+
+    public int getMaxSlots() {
+        return maxSlots;
+    }
+
+    /**
+     * Pictures dropped so far because of the byte budget or the time window.
+     */
+    public long getEvictedCount() {
+        return evicted;
+    }
+
+    // ================= INTERNAL IMPLEMENTATION =================
+
+    /**
+     * Arena offset for a picture of this size, evicting the oldest pictures until it fits; -1 if it never can.
+     */
+    private int place(int length) {
+        if (length == 0 || length > arena.length) {
+            return -1;
+        }
+        while (true) {
+            if (count == 0) {
+                writePos = 0;
+                return 0;
+            }
+            int oldest = offsets[first];
+            if (writePos > oldest) {
+                // Free space is after writePos and before the oldest picture (after wrapping)
+                if (writePos + length <= arena.length) {
+                    return writePos;
+                }
+                if (length <= oldest) {
+                    return 0;
+                }
+            } else if (writePos + length <= oldest) {
+                return writePos;
+            }
+            evictOldest();
+        }
+    }
+
+    private void addSlot() {
+        totalSlots++;
+        if (totalSlots > maxSlots) {
+            // The oldest picture is partly outside the window: shorten it, drop it once it is fully outside
+            totalSlots--;
+            if (--slots[first] == 0) {
+                evictOldest();
+            }
+        }
+    }
+
+    private void evictOldest() {
+        totalSlots -= slots[first];
+        first = (first + 1) % offsets.length;
+        count--;
+        evicted++;
+    }
+}
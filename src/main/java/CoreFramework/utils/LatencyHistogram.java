@@ -0,0 +1,97 @@
+package CoreFramework.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size latency histogram with power-of-two microsecond buckets.
+ *
+ * Behavior:
+ *  - record(nanos) only increments counters, it never allocates, so it is cheap enough for every command
+ *  - safe to record from several threads at once (suite-wide histograms are shared)
+ *  - percentiles are reported as the upper bound of their bucket, i.e. at most 2x too high
+ */
+public final class LatencyHistogram {
+
+    // Bucket i holds values below 2^i microseconds; 40 buckets reach ~6 days
+    private static final int BUCKETS = 40;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        long micros = nanos / 1000;
+        int index = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        buckets.incrementAndGet(index);
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        long max;
+        while (nanos > (max = maxNanos.get()) && !maxNanos.compareAndSet(max, nanos)) {
+            // retry until our value is stored or a larger one wins
+        }
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        totalNanos.set(0);
+        maxNanos.set(0);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.get();
+    }
+
+    /**
+     * Approximate percentile (0-100) in microseconds.
+     */
+    public long percentileMicros(double percentile) {
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(1L << i, TimeUnit.NANOSECONDS.toMicros(maxNanos.get()));
+            }
+        }
+        return TimeUnit.NANOSECONDS.toMicros(maxNanos.get());
+    }
+
+    /**
+     * count / total / mean / p50 / p90 / p99 / max in milliseconds, ready for JSON.
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        long total = count.get();
+        map.put("count", total);
+        map.put("totalMs", millis(TimeUnit.NANOSECONDS.toMicros(totalNanos.get())));
+        map.put("meanMs", total == 0 ? 0.0 : millis(TimeUnit.NANOSECONDS.toMicros(totalNanos.get()) / total));
+        map.put("p50Ms", millis(percentileMicros(50)));
+        map.put("p90Ms", millis(percentileMicros(90)));
+        map.put("p99Ms", millis(percentileMicros(99)));
+        map.put("maxMs", millis(TimeUnit.NANOSECONDS.toMicros(maxNanos.get())));
+        return map;
+    }
+
+    private static double millis(long micros) {
+        return Math.round(micros / 10.0) / 100.0;
+    }
+}
@@ -0,0 +1,197 @@
+package CoreFramework.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes JPEG frames into a Motion-JPEG AVI file without re-encoding them.
+ *
+ * Behavior:
+ *  - writeFrame(jpeg): appends one frame; width / height are read from the first frame's JPEG header
+ *  - repeatFrame(): appends an empty chunk, which players show as "previous frame again"
+ *    (8 bytes instead of a whole JPEG while the page does not change)
+ *  - close(): writes the index and fills in the header (frame count, size), so the file is only
+ *    playable after close()
+ *
+ * The frame rate is fixed per file; callers keep real time by repeating frames.
+ */
+public final class MjpegAviWriter implements VideoSink {
+
+    // RIFF + hdrl list with avih, strl(strh, strf): see header()
+    private static final int HEADER_SIZE = 224;
+    private static final int MOVI_FOURCC_OFFSET = 220;
+    private static final int AVIF_HASINDEX = 0x10;
+    private static final int AVIIF_KEYFRAME = 0x10;
+
+    private final FileChannel channel;
+    private final int fps;
+    private final ByteArrayOutputStream index = new ByteArrayOutputStream();
+
+    private int width;
+    private int height;
+    private int frames;
+    private int maxFrameSize;
+    private long position = HEADER_SIZE;
+    private boolean indexWritten;
+
+    public MjpegAviWriter(Path file, int fps) throws IOException {
+        this.fps = Math.max(1, fps);
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        // Placeholder, rewritten with the real values in close()
+        channel.write(header(), 0);
+    }
+
+    public void writeFrame(byte[] jpeg) throws IOException {
+        writeFrame(jpeg, 0, jpeg.length);
+    }
+
+    /**
+     * Append the JPEG stored in data[offset, offset + length).
+     */
+    @Override
+    public void writeFrame(byte[] data, int offset, int length) throws IOException {
+        if (width == 0) {
+            int[] size = jpegSize(data, offset, length);
+            width = size[0];
+            height = size[1];
+        }
+        writeChunk(data, offset, length);
+        maxFrameSize = Math.max(maxFrameSize, length);
+    }
+
+    @Override
+    public void repeatFrame() throws IOException {
+        writeChunk(null, 0, 0);
+    }
+
+    @Override
+    public int getFrameCount() {
+        return frames;
+    }
+
+    /**
+     * Bytes written so far (without the index added by close()).
+     */
+    @Override
+    public long getSizeBytes() {
+        return position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            byte[] entries = index.toByteArray();
+            ByteBuffer idx1 = ByteBuffer.allocate(8 + entries.length).order(ByteOrder.LITTLE_ENDIAN);
+            idx1.put(fourcc("idx1")).putInt(entries.length).put(entries).flip();
+            channel.write(idx1, position);
+            indexWritten = true;
+            channel.write(header(), 0);
+        } finally {
+            channel.close();
+        }
+    }
+
+    // ================= INTERNAL IMPLEMENTATION =================
+
+    private void writeChunk(byte[] data, int offset, int size) throws IOException {
+        int padded = size + (size & 1);
+        ByteBuffer chunk = ByteBuffer.allocate(8 + padded).order(ByteOrder.LITTLE_ENDIAN);
+        chunk.put(fourcc("00dc")).putInt(size);
+        if (data != null) {
+            chunk.put(data, offset, size);
+        }
+        chunk.position(0).limit(8 + padded);
+        channel.write(chunk, position);
+
+        ByteBuffer entry = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+        entry.put(fourcc("00dc"))
+                .putInt(size == 0 ? 0 : AVIIF_KEYFRAME)
+                .putInt((int) (position - MOVI_FOURCC_OFFSET))
+                .putInt(size);
+        index.write(entry.array());
+
+        position += 8 + padded;
+        frames++;
+    }
+
+    private ByteBuffer header() {
+        long fileSize = position + (indexWritten ? 8L + index.size() : 0);
+        ByteBuffer h = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        h.put(fourcc("RIFF")).putInt((int) (fileSize - 8)).put(fourcc("AVI "));
+
+        h.put(fourcc("LIST")).putInt(192).put(fourcc("hdrl"));
+        h.put(fourcc("avih")).putInt(56)
+                .putInt(1_000_000 / fps)                  // microseconds per frame
+                .putInt(maxFrameSize * fps)               // max bytes per second
+                .putInt(0)                                // padding granularity
+                .putInt(AVIF_HASINDEX)
+                .putInt(frames)
+                .putInt(0)                                // initial frames
+                .putInt(1)                                // streams
+                .putInt(maxFrameSize)
+                .putInt(width)
+                .putInt(height)
+                .putInt(0).putInt(0).putInt(0).putInt(0);
+
+        h.put(fourcc("LIST")).putInt(116).put(fourcc("strl"));
+        h.put(fourcc("strh")).putInt(56)
+                .put(fourcc("vids")).put(fourcc("MJPG"))
+                .putInt(0)                                // flags
+                .putShort((short) 0).putShort((short) 0)  // priority, language
+                .putInt(0)                                // initial frames
+                .putInt(1).putInt(fps)                    // scale, rate -> fps frames per second
+                .putInt(0)                                // start
+                .putInt(frames)                           // length
+                .putInt(maxFrameSize)
+                .putInt(-1)                               // quality
+                .putInt(0)                                // sample size
+                .putShort((short) 0).putShort((short) 0).putShort((short) width).putShort((short) height);
+        h.put(fourcc("strf")).putInt(40)
+                .putInt(40)                               // BITMAPINFOHEADER size
+                .putInt(width).putInt(height)
+                .putShort((short) 1).putShort((short) 24) // planes, bit count
+                .put(fourcc("MJPG"))
+                .putInt(width * height * 3)
+                .putInt(0).putInt(0).putInt(0).putInt(0);
+
+        h.put(fourcc("LIST")).putInt((int) (position - MOVI_FOURCC_OFFSET)).put(fourcc("movi"));
+        h.flip();
+        return h;
+    }
+
+    /**
+     * Width and height from the SOFn marker of a JPEG.
+     */
+    static int[] jpegSize(byte[] jpeg, int offset, int length) throws IOException {
+        int end = offset + length;
+        int i = offset + 2;
+        while (i + 9 < end) {
+            if ((jpeg[i] & 0xFF) != 0xFF) {
+                i++;
+                continue;
+            }
+            int marker = jpeg[i + 1] & 0xFF;
+            int segment = ((jpeg[i + 2] & 0xFF) << 8) | (jpeg[i + 3] & 0xFF);
+            // SOF0..SOF15 except DHT (C4), JPG (C8) and DAC (CC)
+            if (marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC) {
+                int height = ((jpeg[i + 5] & 0xFF) << 8) | (jpeg[i + 6] & 0xFF);
+                int width = ((jpeg[i + 7] & 0xFF) << 8) | (jpeg[i + 8] & 0xFF);
+                return new int[] {width, height};
+            }
+            i += 2 + segment;
+        }
+        throw new IOException("Not a JPEG frame (no SOF marker)");
+    }
+
+    private static byte[] fourcc(String code) {
+        return code.getBytes(StandardCharsets.US_ASCII);
+    }
+}
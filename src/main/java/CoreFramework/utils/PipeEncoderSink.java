@@ -0,0 +1,76 @@
+package CoreFramework.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * VideoSink that pipes JPEG frames into an ffmpeg encoder (see RecorderProcesses.acquirePipeEncoder).
+ *
+ * Behavior:
+ *  - writeFrame: the JPEG goes to ffmpeg's stdin as is; repeatFrame sends the previous JPEG again
+ *  - close(): ends the input and waits (bounded by videoStopTimeoutSeconds, then killed) for the MP4
+ *  - discard(): ends the encoder in the background and deletes its file; the caller does not wait
+ */
+final class PipeEncoderSink implements VideoSink {
+
+    private final RecorderProcesses.Encoder encoder;
+    private final OutputStream input;
+    private byte[] last = new byte[0];
+    private int lastLength;
+    private int frames;
+    private long bytes;
+
+    PipeEncoderSink(RecorderProcesses.Encoder encoder) {
+        this.encoder = encoder;
+        this.input = encoder.getInput();
+    }
+
+    Path getOutput() {
+        return encoder.getOutput();
+    }
+
+    @Override
+    public void writeFrame(byte[] data, int offset, int length) throws IOException {
+        input.write(data, offset, length);
+        if (last.length < length) {
+            last = Arrays.copyOf(last, Math.max(length, last.length * 2));
+        }
+        System.arraycopy(data, offset, last, 0, length);
+        lastLength = length;
+        frames++;
+        bytes += length;
+    }
+
+    @Override
+    public void repeatFrame() throws IOException {
+        if (lastLength == 0) {
+            return;
+        }
+        input.write(last, 0, lastLength);
+        frames++;
+        bytes += lastLength;
+    }
+
+    @Override
+    public int getFrameCount() {
+        return frames;
+    }
+
+    @Override
+    public long getSizeBytes() {
+        return bytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!RecorderProcesses.await(RecorderProcesses.stop(encoder))) {
+            throw new IOException("ffmpeg did not finish " + getOutput() + ": " + encoder.outputTail());
+        }
+    }
+
+    void discard() {
+        RecorderProcesses.stop(encoder).thenRun(() -> VideoRecorder.deleteIfExists(getOutput().toString()));
+    }
+}
@@ -0,0 +1,327 @@
+package CoreFramework.utils;
+
+import CoreFramework.config.ConfigManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RecorderProcesses owns the lifecycle of external recorder / encoder processes (ffmpeg).
+ *
+ * Behavior:
+ *  - launch(...): starts the process and a daemon thread that keeps reading its output, so the process can
+ *    never block on a full stdout / stderr pipe; the last lines are kept for error messages
+ *  - stop(...): finishes a recording on a background thread ("q" for a capture, end of input for a pipe
+ *    encoder), waits up to videoStopTimeoutSeconds, then destroys the process (forcibly if it still lives);
+ *    the caller gets a future and decides whether to wait for it
+ *  - acquirePipeEncoder(): hands out an ffmpeg that was started ahead of time and is waiting for JPEG frames
+ *    on stdin, and starts a replacement in the background (videoEncoderPoolSize idle encoders)
+ *  - shutdown(): stops the background refill (and waits for one in progress) before destroying the idle
+ *    encoders, so none is left running after it; warmUp(...) starts refilling again (next suite)
+ *
+ * Only pipe encoders can be started ahead of time; a desktop capture starts recording the moment it launches.
+ */
+public final class RecorderProcesses {
+
+    private static final int OUTPUT_TAIL_LINES = 20;
+    private static final int REFILL_SHUTDOWN_SECONDS = 10;
+
+    private static final ConcurrentLinkedQueue<Encoder> IDLE = new ConcurrentLinkedQueue<>();
+    private static final ExecutorService BACKGROUND = Executors.newCachedThreadPool(daemonThreads("recorder-lifecycle"));
+    private static final ThreadFactory OUTPUT_THREADS = daemonThreads("recorder-output");
+
+    private static final AtomicLong launched = new AtomicLong();
+    private static final AtomicLong prespawnedUsed = new AtomicLong();
+    private static final AtomicLong coldStarts = new AtomicLong();
+    private static final AtomicLong stoppedCleanly = new AtomicLong();
+    private static final AtomicLong killed = new AtomicLong();
+    private static final AtomicLong outputBytes = new AtomicLong();
+    private static final AtomicBoolean shutdownHookAdded = new AtomicBoolean();
+    private static final AtomicBoolean refilling = new AtomicBoolean();
+    private static volatile boolean stopped;
+
+    private RecorderProcesses() {
+    }
+
+    /**
+     * Start a recorder process. pipeInput: the process reads its input (frames) from stdin.
+     */
+    public static Encoder launch(List<String> command, Path output, boolean pipeInput) throws IOException {
+        ProcessBuilder pb = new ProcessBuilder(command);
+        pb.redirectErrorStream(true);
+        Process process = pb.start();
+        launched.incrementAndGet();
+        Encoder encoder = new Encoder(process, output, pipeInput);
+        OUTPUT_THREADS.newThread(() -> drain(encoder)).start();
+        if (shutdownHookAdded.compareAndSet(false, true)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(RecorderProcesses::shutdown, "recorder-shutdown"));
+        }
+        return encoder;
+    }
+
+    /**
+     * An ffmpeg waiting for MJPEG frames on stdin and writing an MP4 into the ArtifactStore work folder.
+     * Uses an idle pre-started encoder when there is one; otherwise launches one now.
+     */
+    public static Encoder acquirePipeEncoder(int fps) throws IOException {
+        Encoder encoder;
+        while ((encoder = IDLE.poll()) != null) {
+            if (encoder.fps == fps && encoder.process.isAlive()) {
+                prespawnedUsed.incrementAndGet();
+                refill(fps);
+                return encoder;
+            }
+            // Stale (other frame rate, or ffmpeg died): end it without keeping its empty file
+            Encoder stale = encoder;
+            stop(stale).thenRun(stale::deleteOutput);
+        }
+        coldStarts.incrementAndGet();
+        encoder = launchPipeEncoder(fps);
+        refill(fps);
+        return encoder;
+    }
+
+    /**
+     * Start idle pipe encoders in the background (e.g. at suite start); no-op when the pool size is 0.
+     * Undoes an earlier shutdown().
+     */
+    public static void warmUp(int fps) {
+        stopped = false;
+        refill(fps);
+    }
+
+    /**
+     * Finish the recording on a background thread. The future is true when the process exited by itself
+     * within videoStopTimeoutSeconds, false when it had to be killed.
+     */
+    public static CompletableFuture<Boolean> stop(Encoder encoder) {
+        return stop(encoder, TimeUnit.SECONDS.toMillis(ConfigManager.getVideoStopTimeoutSeconds()));
+    }
+
+    /**
+     * Same as stop(encoder), with an explicit timeout instead of videoStopTimeoutSeconds.
+     */
+    public static CompletableFuture<Boolean> stop(Encoder encoder, long timeoutMillis) {
+        return CompletableFuture.supplyAsync(() -> finish(encoder, timeoutMillis), BACKGROUND);
+    }
+
+    /**
+     * Wait for a stop started with stop(...), at most the stop timeout plus the kill grace period.
+     */
+    public static boolean await(CompletableFuture<Boolean> stopping) {
+        try {
+            return stopping.get(ConfigManager.getVideoStopTimeoutSeconds() + 5L, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            System.out.println("[RecorderProcesses] Stop did not complete: " + e);
+            return false;
+        }
+    }
+
+    /**
+     * Stop refilling and destroy idle pre-started encoders (suite end / JVM exit).
+     */
+    public static void shutdown() {
+        stopped = true;
+        // A refill in progress finishes its current launch, then sees the flag
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(REFILL_SHUTDOWN_SECONDS);
+        try {
+            while (refilling.get() && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (refilling.get()) {
+            System.out.println("[RecorderProcesses] Encoder refill still running after " + REFILL_SHUTDOWN_SECONDS
+                    + "s; it destroys its encoder when the launch returns");
+        }
+        Encoder encoder;
+        while ((encoder = IDLE.poll()) != null) {
+            encoder.process.destroyForcibly();
+            encoder.deleteOutput();
+        }
+    }
+
+    public static String metricsSummary() {
+        return "launched=" + launched.get()
+                + ", prespawnedUsed=" + prespawnedUsed.get()
+                + ", coldStarts=" + coldStarts.get()
+                + ", stoppedCleanly=" + stoppedCleanly.get()
+                + ", killed=" + killed.get()
+                + ", outputDrained=" + outputBytes.get() / 1024 + "KB"
+                + ", idle=" + IDLE.size();
+    }
+
+    // ================= INTERNAL IMPLEMENTATION =================
+
+    private static Encoder launchPipeEncoder(int fps) throws IOException {
+        Path output = ArtifactStore.shared().newWorkFile("encoder", "mp4");
+        List<String> command = List.of(
+                ConfigManager.getFfmpegPath(),
+                "-hide_banner", "-loglevel", "error",
+                "-y",
+                "-f", "mjpeg",                   // stdin is a stream of JPEG frames
+                "-framerate", String.valueOf(fps),
+                "-i", "pipe:0",
+                "-c:v", "libx264",
+                "-preset", "ultrafast",
+                "-pix_fmt", "yuv420p",
+                "-vf", "pad=ceil(iw/2)*2:ceil(ih/2)*2", // x264 needs even dimensions
+                output.toAbsolutePath().toString());
+        Encoder encoder = launch(command, output, true);
+        encoder.fps = fps;
+        return encoder;
+    }
+
+    private static void refill(int fps) {
+        int wanted = ConfigManager.getVideoEncoderPoolSize();
+        if (stopped || IDLE.size() >= wanted || !refilling.compareAndSet(false, true)) {
+            return;
+        }
+        BACKGROUND.execute(() -> {
+            try {
+                while (!stopped && IDLE.size() < wanted) {
+                    Encoder encoder = launchPipeEncoder(fps);
+                    IDLE.add(encoder);
+                    // shutdown() stopped waiting during the launch and may have drained IDLE already
+                    if (stopped && IDLE.remove(encoder)) {
+                        encoder.process.destroyForcibly();
+                        encoder.deleteOutput();
+                    }
+                }
+            } catch (IOException e) {
+                System.out.println("[RecorderProcesses] Could not pre-start encoder: " + e.getMessage());
+            } finally {
+                refilling.set(false);
+            }
+        });
+    }
+
+    private static boolean finish(Encoder encoder, long timeoutMillis) {
+        Process process = encoder.process;
+        try {
+            try (OutputStream stdin = process.getOutputStream()) {
+                if (!encoder.pipeInput) {
+                    // Interactive quit: ffmpeg finalizes the file and exits
+                    stdin.write("q\n".getBytes(StandardCharsets.US_ASCII));
+                }
+                // Closing stdin ends a pipe encoder's input
+            } catch (IOException ignored) {
+                // Already exited
+            }
+            if (process.waitFor(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                stoppedCleanly.incrementAndGet();
+                return true;
+            }
+            System.out.println("[RecorderProcesses] Recorder did not exit within " + timeoutMillis
+                    + "ms, killing it. Last output: " + encoder.outputTail());
+            process.destroy();
+            if (!process.waitFor(2, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor(2, TimeUnit.SECONDS);
+            }
+            killed.incrementAndGet();
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            process.destroyForcibly();
+            killed.incrementAndGet();
+            return false;
+        }
+    }
+
+    private static void drain(Encoder encoder) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(encoder.process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                outputBytes.addAndGet(line.length() + 1L);
+                encoder.addOutput(line);
+            }
+        } catch (IOException ignored) {
+            // Stream closed when the process was destroyed
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * A running recorder process and the file it writes.
+     */
+    public static final class Encoder {
+        private final Process process;
+        private final Path output;
+        private final boolean pipeInput;
+        private final Deque<String> tail = new ArrayDeque<>();
+        private int fps;
+
+        private Encoder(Process process, Path output, boolean pipeInput) {
+            this.process = process;
+            this.output = output;
+            this.pipeInput = pipeInput;
+        }
+
+        public Path getOutput() {
+            return output;
+        }
+
+        /**
+         * The process's stdin (pipe encoders: where the JPEG frames go).
+         */
+        public OutputStream getInput() {
+            return process.getOutputStream();
+        }
+
+        public boolean isAlive() {
+            return process.isAlive();
+        }
+
+        /**
+         * The last lines the process printed, for error messages.
+         */
+        public synchronized String outputTail() {
+            return String.join(" | ", tail);
+        }
+
+        private synchronized void addOutput(String line) {
+            if (tail.size() == OUTPUT_TAIL_LINES) {
+                tail.removeFirst();
+            }
+            tail.addLast(line);
+        }
+
+        private void deleteOutput() {
+            try {
+                Files.deleteIfExists(output);
+            } catch (IOException ignored) {
+                // Removed with the work folder later
+            }
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package CoreFramework.utils;
+
+import CoreFramework.actions.DriverFactory;
+import CoreFramework.config.ConfigManager;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.bidi.HasBiDi;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Queue;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ScreencastRecorder records one browser session (not the desktop) through CDP Page.startScreencast.
+ *
+ * Behavior:
+ *  - Chrome sends a JPEG only when the page repaints; the JPEG is written into an MJPEG AVI as is
+ *    (MjpegAviWriter), so there is no decoding or re-encoding and no external encoder process; with
+ *    videoEncoder=ffmpeg the JPEGs are piped into a pre-started ffmpeg instead (smaller MP4 files)
+ *  - adaptive frame rate: the file has a fixed fps, but an idle page costs an 8-byte repeat chunk per
+ *    frame instead of a picture, and when the page repaints faster than fps only the latest frame of
+ *    each slot is kept (the others are acknowledged and never decoded)
+ *  - works headless and in parallel, because every session has its own screencast
+ *  - ring mode (ringSeconds > 0): frames go into a FrameRing in memory instead of a file; the last
+ *    ringSeconds are encoded to disk only when the test failed, a passing test costs no disk write at all
+ *  - Chromium only (Chrome / Edge, local or augmented remote); WebDriver BiDi has no screencast yet,
+ *    so Firefox is skipped
+ *
+ * Frames arrive on the CDP connection thread; one listener per session routes them to the active Recording.
+ */
+public final class ScreencastRecorder {
+
+    // Pooled drivers are reused by many tests, so the frame listener is installed once per session
+    private static final Map<WebDriver, Recording> ACTIVE = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Map<WebDriver, Boolean> LISTENING = Collections.synchronizedMap(new WeakHashMap<>());
+    // Ring buffers of finished recordings, reused so each one is allocated once per concurrent session
+    private static final Queue<FrameRing> SPARE_RINGS = new ConcurrentLinkedQueue<>();
+
+    private static final AtomicLong recordings = new AtomicLong();
+    private static final AtomicLong framesReceived = new AtomicLong();
+    private static final AtomicLong framesWritten = new AtomicLong();
+    private static final AtomicLong framesRepeated = new AtomicLong();
+    private static final AtomicLong framesSuperseded = new AtomicLong();
+    private static final AtomicLong bytesWritten = new AtomicLong();
+    private static final AtomicLong ringsAllocated = new AtomicLong();
+    private static final AtomicLong ringsDiscarded = new AtomicLong();
+    private static final AtomicLong bytesNotWritten = new AtomicLong();
+    private static final AtomicBoolean unsupportedLogged = new AtomicBoolean();
+    private static final AtomicBoolean encoderFallbackLogged = new AtomicBoolean();
+
+    private ScreencastRecorder() {
+    }
+
+    /**
+     * Start a screencast of this driver's page into file, or return null when the driver has no CDP.
+     * With ringSeconds > 0 only the last ringSeconds are kept, in at most ringMaxBytes of memory, and
+     * nothing touches the disk unless stop(recording, true) asks for the video.
+     */
+    public static Recording start(WebDriver driver, Path file, int fps, int jpegQuality, int maxWidth, int maxHeight,
+                                  int ringSeconds, int ringMaxBytes) throws IOException {
+        WebDriver raw = unwrap(driver);
+        if (!DriverFactory.hasCdp(raw)) {
+            if (unsupportedLogged.compareAndSet(false, true)) {
+                String reason = raw instanceof HasBiDi ? " (WebDriver BiDi has no screencast)" : "";
+                System.out.println("[ScreencastRecorder] " + raw.getClass().getSimpleName()
+                        + " has no CDP" + reason + "; video recording is skipped.");
+            }
+            return null;
+        }
+
+        DevTools devTools = ((HasDevTools) raw).getDevTools();
+        devTools.createSessionIfThereIsNotOne();
+        if (LISTENING.putIfAbsent(raw, Boolean.TRUE) == null) {
+            devTools.addListener(mapEvent("Page.screencastFrame"), event -> {
+                // Unacknowledged frames stop the screencast, so every frame is acknowledged first
+                devTools.send(new Command<>("Page.screencastFrameAck", Map.of("sessionId", event.get("sessionId"))));
+                Recording recording = ACTIVE.get(raw);
+                if (recording != null) {
+                    recording.frame((String) event.get("data"), System.nanoTime());
+                }
+            });
+        }
+
+        int safeFps = Math.max(1, fps);
+        FrameRing ring = ringSeconds > 0 ? acquireRing(ringMaxBytes, ringSeconds * safeFps) : null;
+        Recording recording = new Recording(raw, file, safeFps, ring);
+        ACTIVE.put(raw, recording);
+        try {
+            devTools.send(new Command<>("Page.startScreencast", Map.of(
+                    "format", "jpeg",
+                    "quality", jpegQuality,
+                    "maxWidth", maxWidth,
+                    "maxHeight", maxHeight,
+                    "everyNthFrame", 1)));
+        } catch (RuntimeException e) {
+            ACTIVE.remove(raw);
+            recording.finish(false);
+            throw e;
+        }
+        recordings.incrementAndGet();
+        return recording;
+    }
+
+    /**
+     * Stop the screencast. With keep=true the video is finished (ring mode: encoded from memory now) and its
+     * file returned; with keep=false a ring recording is dropped without any disk write. Returns null when
+     * there is no video file.
+     */
+    public static Path stop(Recording recording, boolean keep) {
+        if (recording == null) {
+            return null;
+        }
+        ACTIVE.remove(recording.driver, recording);
+        try {
+            ((HasDevTools) recording.driver).getDevTools().send(new Command<>("Page.stopScreencast", Map.of()));
+        } catch (RuntimeException e) {
+            // The session may already be gone; the frames received so far are still written
+            System.out.println("[ScreencastRecorder] Could not stop screencast: " + e.getMessage());
+        }
+        return recording.finish(keep);
+    }
+
+    public static String metricsSummary() {
+        return "recordings=" + recordings.get()
+                + ", framesReceived=" + framesReceived.get()
+                + ", framesWritten=" + framesWritten.get()
+                + ", framesRepeated=" + framesRepeated.get()
+                + ", framesSuperseded=" + framesSuperseded.get()
+                + ", written=" + bytesWritten.get() / 1024 + "KB"
+                + ", ringsAllocated=" + ringsAllocated.get()
+                + ", ringsDiscarded=" + ringsDiscarded.get()
+                + ", notWritten=" + bytesNotWritten.get() / 1024 + "KB";
+    }
+
+    // ================= INTERNAL IMPLEMENTATION =================
+
+    /**
+     * Where the frames go: an ffmpeg pipe encoder (videoEncoder=ffmpeg) or the in-process MJPEG AVI writer.
+     */
+    private static VideoSink openSink(Path file, int fps) throws IOException {
+        if (ConfigManager.getVideoEncoder().equals("ffmpeg")) {
+            try {
+                return new PipeEncoderSink(RecorderProcesses.acquirePipeEncoder(fps));
+            } catch (IOException e) {
+                if (encoderFallbackLogged.compareAndSet(false, true)) {
+                    System.out.println("[ScreencastRecorder] Could not start ffmpeg (" + e.getMessage()
+                            + "); writing MJPEG AVI instead.");
+                }
+            }
+        }
+        return new MjpegAviWriter(file, fps);
+    }
+
+    private static Path outputOf(VideoSink sink, Path file) {
+        return sink instanceof PipeEncoderSink ? ((PipeEncoderSink) sink).getOutput() : file;
+    }
+
+    private static FrameRing acquireRing(int maxBytes, int maxSlots) {
+        FrameRing ring;
+        while ((ring = SPARE_RINGS.poll()) != null) {
+            if (ring.getCapacityBytes() == maxBytes && ring.getMaxSlots() == maxSlots) {
+                return ring;
+            }
+            // Configuration changed; let the old ring be collected
+        }
+        ringsAllocated.incrementAndGet();
+        return new FrameRing(maxBytes, maxSlots);
+    }
+
+    private static Event<Map<String, Object>> mapEvent(String method) {
+        return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+    }
+
+    private static WebDriver unwrap(WebDriver driver) {
+        while (driver instanceof WrapsDriver) {
+            driver = ((WrapsDriver) driver).getWrappedDriver();
+        }
+        return driver;
+    }
+
+    /**
+     * One test's screencast. Time is cut into slots of 1/fps seconds; a slot gets the latest frame
+     * that arrived in it, or a repeat of the previous frame when none did. The slots go straight into
+     * the file, or into a FrameRing in ring mode.
+     */
+    public static final class Recording {
+        private final WebDriver driver;
+        private final Path file;
+        private final int fps;
+        private final long startNanos = System.nanoTime();
+        private final VideoSink writer;
+        private final FrameRing ring;
+
+        private String pendingFrame;
+        private long pendingSlot = -1;
+        private long nextSlot;
+        private long bufferedBytes;
+        private boolean hasPicture;
+        private boolean finished;
+
+        private Recording(WebDriver driver, Path file, int fps, FrameRing ring) throws IOException {
+            this.driver = driver;
+            this.file = file;
+            this.fps = fps;
+            this.ring = ring;
+            this.writer = ring == null ? openSink(file, fps) : null;
+        }
+
+        private synchronized void frame(String base64Jpeg, long nowNanos) {
+            if (finished || base64Jpeg == null) {
+                return;
+            }
+            framesReceived.incrementAndGet();
+            long slot = slotAt(nowNanos);
+            if (slot == pendingSlot) {
+                // Same slot: the newer picture wins, the older one is never decoded
+                framesSuperseded.incrementAndGet();
+            } else {
+                writePending(slot);
+            }
+            pendingFrame = base64Jpeg;
+            pendingSlot = slot;
+        }
+
+        private synchronized Path finish(boolean keep) {
+            if (finished) {
+                return null;
+            }
+            finished = true;
+            try {
+                if (keep) {
+                    // Repeat the last picture until "now", so the video is as long as the test
+                    writePending(slotAt(System.nanoTime()) + 1);
+                }
+                if (ring == null) {
+                    if (!keep && writer instanceof PipeEncoderSink) {
+                        // Not needed: the encoder is ended in the background, the test does not wait
+                        ((PipeEncoderSink) writer).discard();
+                        return null;
+                    }
+                    writer.close();
+                    bytesWritten.addAndGet(writer.getSizeBytes());
+                    return hasPicture ? outputOf(writer, file) : null;
+                }
+                if (!keep || ring.isEmpty()) {
+                    ringsDiscarded.incrementAndGet();
+                    bytesNotWritten.addAndGet(bufferedBytes);
+                    return null;
+                }
+                try (VideoSink out = openSink(file, fps)) {
+                    ring.writeTo(out);
+                    framesWritten.addAndGet(out.getFrameCount());
+                    bytesWritten.addAndGet(out.getSizeBytes());
+                    return outputOf(out, file);
+                }
+            } catch (IOException | RuntimeException e) {
+                System.out.println("[ScreencastRecorder] Failed to finish " + file + ": " + e.getMessage());
+                return null;
+            } finally {
+                if (ring != null) {
+                    ring.clear();
+                    SPARE_RINGS.offer(ring);
+                }
+            }
+        }
+
+        /**
+         * Write the held frame into its slot, then repeat the last picture up to (not including) untilSlot.
+         */
+        private void writePending(long untilSlot) {
+            try {
+                if (pendingFrame != null) {
+                    byte[] jpeg = Base64.getDecoder().decode(pendingFrame);
+                    pendingFrame = null;
+                    nextSlot = pendingSlot + 1;
+                    if (ring == null) {
+                        writer.writeFrame(jpeg, 0, jpeg.length);
+                        framesWritten.incrementAndGet();
+                    } else {
+                        ring.append(jpeg);
+                        bufferedBytes += jpeg.length;
+                    }
+                    hasPicture = true;
+                }
+                if (!hasPicture) {
+                    return;
+                }
+                for (; nextSlot < untilSlot; nextSlot++) {
+                    if (ring == null) {
+                        writer.repeatFrame();
+                    } else {
+                        ring.repeat();
+                    }
+                    framesRepeated.incrementAndGet();
+                }
+            } catch (IOException e) {
+                pendingFrame = null;
+                System.out.println("[ScreencastRecorder] Failed to write frame to " + file + ": " + e.getMessage());
+            }
+        }
+
+        private long slotAt(long nowNanos) {
+            // Never go back in time: a late frame goes into the next free slot
+            return Math.max(nextSlot, (nowNanos - startNanos) * fps / 1_000_000_000L);
+        }
+    }
+}
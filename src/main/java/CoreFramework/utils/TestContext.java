@@ -0,0 +1,107 @@
+package CoreFramework.utils;
+
+import CoreFramework.actions.CommandMetrics;
+import CoreFramework.utils.reporting.ActionJournal;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Per-test state (driver, action journal, video recording, command timings) kept in ONE holder per thread.
+ *
+ * DriverFactory, ActionJournal and VideoRecorder read their state from here instead of keeping
+ * separate ThreadLocals. The holder belongs to the thread that runs the test - a platform worker
+ * or a virtual thread - never to a carrier thread, and it can be handed to helper threads
+ * explicitly with bind() / unbind().
+ */
+public final class TestContext {
+
+    private static final ThreadLocal<TestContext> CURRENT = new ThreadLocal<>();
+
+    private WebDriver driver;
+    private ActionJournal.Ring journalRing;
+    private RecorderProcesses.Encoder recorder;
+    private ScreencastRecorder.Recording screencast;
+    private long recorderStartNanos;
+    private long recorderStopNanos;
+    private final CommandMetrics.Recorder commandRecorder = new CommandMetrics.Recorder();
+
+    private TestContext() {
+    }
+
+    /**
+     * Context of the calling thread, created on first use.
+     */
+    public static TestContext current() {
+        TestContext context = CURRENT.get();
+        if (context == null) {
+            context = new TestContext();
+            CURRENT.set(context);
+        }
+        return context;
+    }
+
+    /**
+     * Attach an existing context to the calling thread (e.g. a helper thread working for a test).
+     */
+    public static void bind(TestContext context) {
+        CURRENT.set(context);
+    }
+
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    public WebDriver getDriver() {
+        return driver;
+    }
+
+    public void setDriver(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    public ActionJournal.Ring getJournalRing() {
+        return journalRing;
+    }
+
+    public void setJournalRing(ActionJournal.Ring journalRing) {
+        this.journalRing = journalRing;
+    }
+
+    public RecorderProcesses.Encoder getRecorder() {
+        return recorder;
+    }
+
+    public void setRecorder(RecorderProcesses.Encoder recorder) {
+        this.recorder = recorder;
+    }
+
+    public ScreencastRecorder.Recording getScreencast() {
+        return screencast;
+    }
+
+    public void setScreencast(ScreencastRecorder.Recording screencast) {
+        this.screencast = screencast;
+    }
+
+    /**
+     * Time the test thread spent starting the recorder (see VideoRecorder.reportOverhead).
+     */
+    public long getRecorderStartNanos() {
+        return recorderStartNanos;
+    }
+
+    public void setRecorderStartNanos(long recorderStartNanos) {
+        this.recorderStartNanos = recorderStartNanos;
+    }
+
+    public long getRecorderStopNanos() {
+        return recorderStopNanos;
+    }
+
+    public void setRecorderStopNanos(long recorderStopNanos) {
+        this.recorderStopNanos = recorderStopNanos;
+    }
+
+    public CommandMetrics.Recorder getCommandRecorder() {
+        return commandRecorder;
+    }
+}
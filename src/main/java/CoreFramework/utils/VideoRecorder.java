@@ -1,115 +1,156 @@
 package CoreFramework.utils;
 
+import CoreFramework.config.ConfigManager;
+import org.openqa.selenium.WebDriver;
+
 import java.io.IOException;
-import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * VideoRecorder using ffmpeg to record MP4.
+ * VideoRecorder records a video per test with the backend chosen by videoBackend.
  *
- * Requirements:
- *  - ffmpeg must be installed and available on PATH
- *  - Tests must run on a machine with a desktop (not a headless OS with no display)
+ * Backends:
+ *  - screencast: frames of the test's own browser session through CDP (ScreencastRecorder), written
+ *    in-process as MJPEG AVI; works headless, on Linux and in parallel (Chrome / Edge only)
+ *  - ffmpeg: desktop capture with gdigrab; ffmpeg must be on PATH and the machine needs a desktop (Windows);
+ *    the process is run by RecorderProcesses (output drained, stop with timeout and kill fallback)
+ *  - none: no recording
  *
  * Behavior:
- *  - startRecording(testName): starts ffmpeg screen capture into an MP4
- *  - stopRecording(): sends "q" to ffmpeg, waits for it to finish, returns MP4 file path
- *  - deleteIfExists(path): deletes a video file (useful for passed tests)
+ *  - startRecording(testName): starts recording into the ArtifactStore work folder
+ *  - stopRecording(): finishes the recording and returns the file path; waits at most videoStopTimeoutSeconds
+ *  - discardRecording(): stops without keeping a video (passed / skipped tests) and does not wait for ffmpeg;
+ *    in screencast ring mode (videoRingSeconds > 0) the frames only ever lived in memory
+ *  - reportOverhead(testName): prints the time the test thread spent starting / stopping the recorder
+ *  - keep(path, testName): moves a finished video into ArtifactStore (deduplicated, retention applied)
+ *  - deleteIfExists(path): deletes a video file
+ *  - ffmpeg recording is skipped in parallel mode, because the whole desktop is captured
  */
 public class VideoRecorder {
 
-    // Your desired folder:
-    // src/test/resources/Artifacts/VideoRecords
-    private static final Path VIDEOS_DIR =
-            Paths.get("src", "test", "resources", "Artifacts", "VideoRecords");
-
-    private static final ThreadLocal<Process> currentProcess = new ThreadLocal<>();
-    private static final ThreadLocal<String> currentVideoPath = new ThreadLocal<>();
-
-    static {
-        try {
-            Files.createDirectories(VIDEOS_DIR);
-        } catch (Exception ignored) {
-        }
-    }
+    private static final AtomicBoolean parallelNoticePrinted = new AtomicBoolean();
+    private static final AtomicBoolean ffmpegNoticePrinted = new AtomicBoolean();
+    private static final LatencyHistogram START_OVERHEAD = new LatencyHistogram();
+    private static final LatencyHistogram STOP_OVERHEAD = new LatencyHistogram();
 
     /**
-     * Start screen recording for this test.
-     * Uses ffmpeg with gdigrab to capture the entire desktop.
+     * Start recording this test with the configured backend.
      */
     public static void startRecording(String testName) {
-        try {
-            String fileName = testName + "_" + System.currentTimeMillis() + ".AVI";
-            Path videoPath = VIDEOS_DIR.resolve(fileName);
-            currentVideoPath.set(videoPath.toString());
-
-            // Example ffmpeg command (Windows, desktop capture):
-            // ffmpeg -y -f gdigrab -framerate 15 -i desktop output.mp4
-            ProcessBuilder pb = new ProcessBuilder(
-                    "ffmpeg",
-                    "-y",                    // overwrite output if exists
-                    "-f", "gdigrab",         // screen capture on Windows
-                    "-framerate", "15",      // FPS
-                    "-i", "desktop",         // capture entire desktop
-                    videoPath.toAbsolutePath().toString()
-            );
-
-            // Merge stderr into stdout so ffmpeg output doesn’t block
-            pb.redirectErrorStream(true);
-
-            Process process = pb.start();
-            currentProcess.set(process);
-
-        } catch (IOException e) {
-            // If ffmpeg fails to start, clear thread-locals
-            currentProcess.remove();
-            currentVideoPath.remove();
-            // You can log this if you want
+        long start = System.nanoTime();
+        switch (ConfigManager.getVideoBackend()) {
+            case "none":
+                return;
+            case "screencast":
+                startScreencast(testName);
+                break;
+            case "ffmpeg":
+                startDesktopCapture(testName);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown videoBackend: " + ConfigManager.getVideoBackend()
+                        + " (use screencast, ffmpeg or none)");
         }
+        TestContext context = TestContext.current();
+        context.setRecorderStartNanos(System.nanoTime() - start);
+        context.setRecorderStopNanos(0);
     }
 
     /**
-     * Stop recording and return the MP4 file path (if it exists).
-     * This sends "q" to ffmpeg to gracefully finish the file.
+     * Stop recording and return the video file path (if it exists).
+     * ffmpeg is sent "q" to gracefully finish the file.
      */
     public static String stopRecording() {
-        Process process = currentProcess.get();
-        String videoPath = currentVideoPath.get();
-
+        long start = System.nanoTime();
+        TestContext context = TestContext.current();
         try {
-            if (process != null) {
-                try {
-                    // Send 'q' to ffmpeg to stop and finalize the file
-                    OutputStream os = process.getOutputStream();
-                    os.write('q');
-                    os.write('\n');
-                    os.flush();
-                } catch (IOException ignored) {
-                }
-
-                // Wait for ffmpeg to exit
-                process.waitFor();
+            ScreencastRecorder.Recording screencast = context.getScreencast();
+            if (screencast != null) {
+                context.setScreencast(null);
+                Path videoPath = ScreencastRecorder.stop(screencast, true);
+                return videoPath == null ? null : videoPath.toAbsolutePath().toString();
             }
+            return stopDesktopCapture();
+        } finally {
+            context.setRecorderStopNanos(System.nanoTime() - start);
+        }
+    }
 
-            if (videoPath == null) {
-                return null;
+    /**
+     * Stop recording for a test whose video is not needed.
+     */
+    public static void discardRecording() {
+        long start = System.nanoTime();
+        TestContext context = TestContext.current();
+        ScreencastRecorder.Recording screencast = context.getScreencast();
+        if (screencast != null) {
+            context.setScreencast(null);
+            Path videoPath = ScreencastRecorder.stop(screencast, false);
+            if (videoPath != null) {
+                deleteIfExists(videoPath.toString());
             }
+        }
+        RecorderProcesses.Encoder recorder = context.getRecorder();
+        if (recorder != null) {
+            context.setRecorder(null);
+            // ffmpeg finalizes and the file is deleted in the background; the test thread moves on
+            RecorderProcesses.stop(recorder).thenRun(() -> deleteIfExists(recorder.getOutput().toString()));
+        }
+        context.setRecorderStopNanos(System.nanoTime() - start);
+    }
 
-            Path p = Paths.get(videoPath);
-            if (Files.exists(p)) {
-                return p.toAbsolutePath().toString();
-            } else {
-                return null;
-            }
+    /**
+     * Print and aggregate how long this test's thread spent starting and stopping the recorder.
+     * Call after stopRecording() / discardRecording(); no-op when nothing was recorded.
+     */
+    public static void reportOverhead(String testName) {
+        TestContext context = TestContext.current();
+        long startNanos = context.getRecorderStartNanos();
+        long stopNanos = context.getRecorderStopNanos();
+        if (startNanos == 0) {
+            // No recorder was started for this test (videoBackend=none)
+            context.setRecorderStopNanos(0);
+            return;
+        }
+        START_OVERHEAD.record(startNanos);
+        STOP_OVERHEAD.record(stopNanos);
+        context.setRecorderStartNanos(0);
+        context.setRecorderStopNanos(0);
+        System.out.printf("[VideoRecorder] %s: recorder start=%.1fms, stop=%.1fms%n",
+                testName, startNanos / 1_000_000.0, stopNanos / 1_000_000.0);
+    }
+
+    /**
+     * Suite-wide recorder overhead on the test threads, e.g. {start={count=.., p50Ms=..}, stop={...}}.
+     */
+    public static Map<String, Object> overheadSummary() {
+        return Map.of("start", START_OVERHEAD.toMap(), "stop", STOP_OVERHEAD.toMap());
+    }
 
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+    /**
+     * Move a finished recording into ArtifactStore and return the per-test reference path,
+     * or null when there is no video.
+     */
+    public static String keep(String videoPath, String testName) {
+        if (videoPath == null || videoPath.isEmpty()) {
+            return null;
+        }
+        Path p = Paths.get(videoPath);
+        if (!Files.exists(p)) {
             return null;
-        } finally {
-            currentProcess.remove();
-            currentVideoPath.remove();
+        }
+        String fileName = p.getFileName().toString();
+        String extension = fileName.substring(fileName.lastIndexOf('.') + 1);
+        try {
+            return ArtifactStore.shared().adopt(p, testName, extension).toAbsolutePath().toString();
+        } catch (IOException e) {
+            System.out.println("[VideoRecorder] Failed to store " + videoPath + ": " + e.getMessage());
+            return videoPath;
         }
     }
 
@@ -130,4 +171,80 @@ public class VideoRecorder {
             // Do not fail the test because deleting a file failed
         }
     }
+
+    // ================= INTERNAL IMPLEMENTATION =================
+
+    private static void startScreencast(String testName) {
+        WebDriver driver = TestContext.current().getDriver();
+        if (driver == null) {
+            // Nothing to record for tests without a browser
+            return;
+        }
+        Path videoPath = null;
+        try {
+            videoPath = ArtifactStore.shared().newWorkFile(testName, "avi");
+            ScreencastRecorder.Recording recording = ScreencastRecorder.start(driver, videoPath,
+                    ConfigManager.getVideoFps(), ConfigManager.getVideoJpegQuality(),
+                    ConfigManager.getVideoMaxWidth(), ConfigManager.getVideoMaxHeight(),
+                    ConfigManager.getVideoRingSeconds(), ConfigManager.getVideoRingMaxBytes());
+            if (recording == null) {
+                deleteIfExists(videoPath.toString());
+            }
+            TestContext.current().setScreencast(recording);
+        } catch (IOException | RuntimeException e) {
+            // A missing video must not fail the test
+            System.out.println("[VideoRecorder] Could not start screencast: " + e.getMessage());
+            if (videoPath != null) {
+                deleteIfExists(videoPath.toString());
+            }
+        }
+    }
+
+    /**
+     * Uses ffmpeg with gdigrab to capture the entire desktop.
+     */
+    private static void startDesktopCapture(String testName) {
+        if (ConfigManager.isParallelExecution()) {
+            // gdigrab captures the whole desktop, so parallel workers would all record the same screen
+            if (parallelNoticePrinted.compareAndSet(false, true)) {
+                System.out.println("[VideoRecorder] Parallel execution is enabled; desktop recording is skipped.");
+            }
+            return;
+        }
+        // Recorded into the store's work folder; keep(...) moves it into the store on failure
+        Path videoPath = ArtifactStore.shared().newWorkFile(testName, "AVI");
+        try {
+            // Example ffmpeg command (Windows, desktop capture):
+            // ffmpeg -y -f gdigrab -framerate 15 -i desktop output.mp4
+            RecorderProcesses.Encoder recorder = RecorderProcesses.launch(List.of(
+                    ConfigManager.getFfmpegPath(),
+                    "-y",                    // overwrite output if exists
+                    "-f", "gdigrab",         // screen capture on Windows
+                    "-framerate", "15",      // FPS
+                    "-i", "desktop",         // capture entire desktop
+                    videoPath.toAbsolutePath().toString()
+            ), videoPath, false);
+            TestContext.current().setRecorder(recorder);
+        } catch (IOException e) {
+            // If ffmpeg fails to start, the test runs without a video
+            if (ffmpegNoticePrinted.compareAndSet(false, true)) {
+                System.out.println("[VideoRecorder] Could not start ffmpeg: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Asks ffmpeg to finalize the file and waits for it, at most videoStopTimeoutSeconds before it is killed.
+     */
+    private static String stopDesktopCapture() {
+        TestContext context = TestContext.current();
+        RecorderProcesses.Encoder recorder = context.getRecorder();
+        if (recorder == null) {
+            return null;
+        }
+        context.setRecorder(null);
+        RecorderProcesses.await(RecorderProcesses.stop(recorder));
+        Path p = recorder.getOutput();
+        return Files.exists(p) ? p.toAbsolutePath().toString() : null;
+    }
 }
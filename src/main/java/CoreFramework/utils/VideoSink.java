@@ -0,0 +1,24 @@
+package CoreFramework.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Destination for screencast frames: an in-process MJPEG AVI (MjpegAviWriter) or an ffmpeg pipe encoder.
+ *
+ * Frames are JPEGs at a fixed frame rate; repeatFrame() shows the previous picture for one more frame.
+ * close() finishes the video.
+ */
+public interface VideoSink extends Closeable {
+
+    void writeFrame(byte[] data, int offset, int length) throws IOException;
+
+    void repeatFrame() throws IOException;
+
+    int getFrameCount();
+
+    /**
+     * Bytes handed to the sink so far.
+     */
+    long getSizeBytes();
+}
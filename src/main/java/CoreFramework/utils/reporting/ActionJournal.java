@@ -0,0 +1,321 @@
+package CoreFramework.utils.reporting;
+
+import CoreFramework.config.ConfigManager;
+import CoreFramework.utils.TestContext;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.StepResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ActionJournal is the single log of what a test did: UI actions and page-level steps.
+ *
+ * Behavior:
+ *  - every thread writes into its own fixed-size ring buffer of pre-allocated entries,
+ *    so record() does not allocate and does not wait for I/O
+ *  - a background thread drains the rings to SLF4J / Logback (logger "CoreFramework.journal");
+ *    when the level is disabled, entries are dropped there without being formatted
+ *  - StepLogger is a view on the STEP entries of the current test (failure email)
+ *  - UI actions are also added as Allure steps when journalAllureSteps=true (off by default; that path
+ *    allocates per action and is not part of the zero-allocation guarantee)
+ *
+ * A ring holds journalCapacity entries; if a thread outruns the flusher, the oldest entries are
+ * counted as dropped instead of blocking the test.
+ */
+public final class ActionJournal {
+
+    public enum Type {
+        STEP,
+        NAVIGATE,
+        CLICK,
+        SET_TEXT,
+        CLEAR_TEXT,
+        GET_TEXT,
+        SET_TEXTS,
+        GET_TEXTS
+    }
+
+    public enum Outcome {
+        OK,
+        FAILED
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger("CoreFramework.journal");
+
+    private static final List<Ring> RINGS = new CopyOnWriteArrayList<>();
+    private static final AtomicLong recorded = new AtomicLong();
+    private static final AtomicLong dropped = new AtomicLong();
+
+    private static volatile ScheduledExecutorService flusher;
+    private static Entry[] scratch = new Entry[0];
+
+    private ActionJournal() {
+    }
+
+    /**
+     * Record a page-level step (shown in the failure email).
+     */
+    public static void step(String text) {
+        append(Type.STEP, null, text, 0, Outcome.OK);
+    }
+
+    /**
+     * Record a finished UI action. startNanos is the System.nanoTime() taken before the action.
+     */
+    public static void action(Type type, String target, long startNanos, Outcome outcome, String detail) {
+        long duration = System.nanoTime() - startNanos;
+        append(type, target, detail, duration, outcome);
+        if (ConfigManager.isJournalAllureSteps()) {
+            addAllureStep(type, target, duration, outcome, detail);
+        }
+    }
+
+    /**
+     * Mark the start of a new test on this thread; steps() only returns what follows.
+     */
+    public static void startTest() {
+        Ring ring = ring();
+        synchronized (ring) {
+            ring.testStart = ring.written;
+        }
+    }
+
+    /**
+     * Text of the STEP entries recorded by the current test.
+     */
+    public static List<String> steps() {
+        Ring ring = ring();
+        List<String> steps = new ArrayList<>();
+        synchronized (ring) {
+            long from = Math.max(ring.testStart, ring.written - ring.entries.length);
+            if (from > ring.testStart) {
+                steps.add("... " + (from - ring.testStart) + " earlier journal entries were overwritten");
+            }
+            for (long seq = from; seq < ring.written; seq++) {
+                Entry entry = ring.entries[(int) (seq % ring.entries.length)];
+                if (entry.type == Type.STEP) {
+                    steps.add(entry.detail);
+                }
+            }
+        }
+        return steps;
+    }
+
+    /**
+     * The last count entries of the current test, formatted one per line (e.g. for the failure email).
+     */
+    public static List<String> recentActions(int count) {
+        Ring ring = ring();
+        List<String> lines = new ArrayList<>();
+        synchronized (ring) {
+            long from = Math.max(Math.max(ring.testStart, ring.written - ring.entries.length),
+                    ring.written - count);
+            for (long seq = from; seq < ring.written; seq++) {
+                Entry entry = ring.entries[(int) (seq % ring.entries.length)];
+                if (entry.type != Type.STEP) {
+                    lines.add(format(entry));
+                }
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Locator / URL of the current test's most recent FAILED action, or null if none failed.
+     */
+    public static String lastFailedTarget() {
+        Ring ring = ring();
+        synchronized (ring) {
+            long from = Math.max(ring.testStart, ring.written - ring.entries.length);
+            for (long seq = ring.written - 1; seq >= from; seq--) {
+                Entry entry = ring.entries[(int) (seq % ring.entries.length)];
+                if (entry.outcome == Outcome.FAILED) {
+                    return entry.target;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Write everything recorded so far to the log, on the calling thread (e.g. at suite end).
+     */
+    public static synchronized void flush() {
+        for (Ring ring : RINGS) {
+            drain(ring);
+            if (!ring.owner.isAlive()) {
+                RINGS.remove(ring);
+            }
+        }
+    }
+
+    public static String metricsSummary() {
+        return "recorded=" + recorded.get() + ", dropped=" + dropped.get() + ", rings=" + RINGS.size();
+    }
+
+    // ================= INTERNAL IMPLEMENTATION =================
+
+    private static void append(Type type, String target, String detail, long durationNanos, Outcome outcome) {
+        Ring ring = ring();
+        synchronized (ring) {
+            Entry entry = ring.entries[(int) (ring.written % ring.entries.length)];
+            entry.type = type;
+            entry.target = target;
+            entry.detail = detail;
+            entry.durationNanos = durationNanos;
+            entry.outcome = outcome;
+            ring.written++;
+        }
+        recorded.incrementAndGet();
+    }
+
+    private static Ring ring() {
+        TestContext context = TestContext.current();
+        Ring ring = context.getJournalRing();
+        if (ring == null) {
+            ring = new Ring(Thread.currentThread(), ConfigManager.getJournalCapacity());
+            context.setJournalRing(ring);
+            RINGS.add(ring);
+            startFlusher();
+        }
+        return ring;
+    }
+
+    private static void startFlusher() {
+        if (flusher != null) {
+            return;
+        }
+        synchronized (ActionJournal.class) {
+            if (flusher == null) {
+                ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread thread = new Thread(r, "action-journal-flusher");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                long period = ConfigManager.getJournalFlushMillis();
+                executor.scheduleWithFixedDelay(ActionJournal::flush, period, period, TimeUnit.MILLISECONDS);
+                Runtime.getRuntime().addShutdownHook(new Thread(ActionJournal::flush, "action-journal-shutdown"));
+                flusher = executor;
+            }
+        }
+    }
+
+    /**
+     * Copy the unflushed entries out under the ring's lock, then log them without holding it.
+     * Only called from flush(), which is synchronized, so the scratch buffer has a single user.
+     */
+    private static void drain(Ring ring) {
+        int count;
+        String threadName = ring.threadName;
+        synchronized (ring) {
+            long from = ring.flushed;
+            long oldest = ring.written - ring.entries.length;
+            if (from < oldest) {
+                dropped.addAndGet(oldest - from);
+                from = oldest;
+            }
+            count = (int) (ring.written - from);
+            if (scratch.length < count) {
+                Entry[] bigger = new Entry[ring.entries.length];
+                for (int i = 0; i < bigger.length; i++) {
+                    bigger[i] = i < scratch.length ? scratch[i] : new Entry();
+                }
+                scratch = bigger;
+            }
+            for (int i = 0; i < count; i++) {
+                scratch[i].copyFrom(ring.entries[(int) ((from + i) % ring.entries.length)]);
+            }
+            ring.flushed = ring.written;
+        }
+
+        for (int i = 0; i < count; i++) {
+            Entry entry = scratch[i];
+            if (entry.outcome == Outcome.FAILED) {
+                if (LOG.isWarnEnabled()) {
+                    LOG.warn("[{}] {}", threadName, format(entry));
+                }
+            } else if (LOG.isInfoEnabled()) {
+                LOG.info("[{}] {}", threadName, format(entry));
+            }
+        }
+    }
+
+    private static String format(Entry entry) {
+        StringBuilder sb = new StringBuilder();
+        if (entry.type == Type.STEP) {
+            return sb.append("STEP ").append(entry.detail).toString();
+        }
+        sb.append(entry.type).append(' ').append(entry.outcome);
+        if (entry.target != null) {
+            sb.append(' ').append(entry.target);
+        }
+        sb.append(" (").append(entry.durationNanos / 1_000_000).append("ms)");
+        if (entry.detail != null) {
+            sb.append(" - ").append(entry.detail);
+        }
+        return sb.toString();
+    }
+
+    private static void addAllureStep(Type type, String target, long durationNanos, Outcome outcome, String detail) {
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        if (!lifecycle.getCurrentTestCaseOrStep().isPresent()) {
+            return;
+        }
+        long stop = System.currentTimeMillis();
+        String uuid = UUID.randomUUID().toString();
+        lifecycle.startStep(uuid, new StepResult()
+                .setName(type + (target == null ? "" : " " + target))
+                .setStatus(outcome == Outcome.OK ? Status.PASSED : Status.BROKEN)
+                .setDescription(detail));
+        lifecycle.updateStep(uuid, step -> step.setStart(stop - durationNanos / 1_000_000));
+        lifecycle.stopStep(uuid);
+    }
+
+    /**
+     * One thread's ring buffer. Entries are reused; written / flushed are sequence numbers.
+     */
+    public static final class Ring {
+        private final Thread owner;
+        private final String threadName;
+        private final Entry[] entries;
+        private long written;
+        private long flushed;
+        private long testStart;
+
+        private Ring(Thread owner, int capacity) {
+            this.owner = owner;
+            this.threadName = owner.getName();
+            this.entries = new Entry[Math.max(16, capacity)];
+            for (int i = 0; i < entries.length; i++) {
+                entries[i] = new Entry();
+            }
+        }
+    }
+
+    private static final class Entry {
+        private Type type;
+        private String target;
+        private String detail;
+        private long durationNanos;
+        private Outcome outcome;
+
+        private void copyFrom(Entry other) {
+            type = other.type;
+            target = other.target;
+            detail = other.detail;
+            durationNanos = other.durationNanos;
+            outcome = other.outcome;
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package CoreFramework.utils.reporting;
+
+import CoreFramework.config.ConfigManager;
+import CoreFramework.utils.LatencyHistogram;
+import org.openqa.selenium.json.Json;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ArtifactWriter moves artifact I/O (screenshots, Allure attachment files, videos) off the test thread.
+ *
+ * Behavior:
+ *  - submit(...) hands a buffer or file plus a Sink (where to write it) to a bounded queue
+ *    drained by artifactWriterThreads daemon threads
+ *  - when the queue is full, artifactBackpressure decides:
+ *      block      - the test thread waits for a free slot (nothing is lost)
+ *      dropOldest - the oldest queued artifact is discarded and counted; its sink is told (Sink.discard)
+ *      spill      - the buffer is written to artifactSpillDir and queued as a file reference,
+ *                   so memory stays bounded and nothing is lost; while spilled artifacts wait,
+ *                   new ones are spilled too, so artifacts are still written in submission order
+ *  - flush(): waits until everything submitted so far is written (called at suite end and on JVM exit)
+ *  - queue depth, hand-off time and enqueue-to-written latency are kept; see metricsSummary() / writeMetrics()
+ */
+public final class ArtifactWriter {
+
+    /**
+     * Destination of one artifact, e.g. a file on disk or an Allure attachment source.
+     */
+    public interface Sink {
+        void write(InputStream data) throws IOException;
+
+        /**
+         * Called instead of write() when the artifact is dropped (dropOldest), e.g. to leave a marker where
+         * the artifact was announced. Runs on the submitting thread, so it must be quick.
+         */
+        default void discard(String reason) throws IOException {
+        }
+    }
+
+    public enum Backpressure {
+        BLOCK,
+        DROP_OLDEST,
+        SPILL;
+
+        public static Backpressure fromConfig() {
+            String name = ConfigManager.getArtifactBackpressure();
+            switch (name.trim().toLowerCase()) {
+                case "dropoldest":
+                    return DROP_OLDEST;
+                case "spill":
+                    return SPILL;
+                case "block":
+                    return BLOCK;
+                default:
+                    throw new IllegalArgumentException("Unknown artifactBackpressure: " + name
+                            + " (use block, dropOldest or spill)");
+            }
+        }
+    }
+
+    private static final AtomicLong submitted = new AtomicLong();
+    private static final AtomicLong written = new AtomicLong();
+    private static final AtomicLong failed = new AtomicLong();
+    private static final AtomicLong dropped = new AtomicLong();
+    private static final AtomicLong spilled = new AtomicLong();
+    private static final AtomicLong maxDepth = new AtomicLong();
+    private static final AtomicLong pending = new AtomicLong();
+    private static final AtomicLong spillSequence = new AtomicLong();
+
+    private static final LatencyHistogram HANDOFF = new LatencyHistogram();
+    private static final LatencyHistogram LATENCY = new LatencyHistogram();
+
+    private static volatile BlockingQueue<Task> queue;
+    // Spilled tasks only hold a file path, so this overflow list costs almost no memory
+    private static final ConcurrentLinkedQueue<Task> overflow = new ConcurrentLinkedQueue<>();
+    private static final Object idle = new Object();
+
+    private ArtifactWriter() {
+    }
+
+    /**
+     * Queue an in-memory artifact. The array must not be modified afterwards.
+     */
+    public static void submit(String description, byte[] data, Sink sink) {
+        enqueue(new Task(description, data, null, false, sink));
+    }
+
+    /**
+     * Queue an artifact that already exists on disk; it is streamed to the sink, never loaded whole.
+     */
+    public static void submit(String description, Path file, Sink sink) {
+        enqueue(new Task(description, null, file, false, sink));
+    }
+
+    /**
+     * Wait until every artifact submitted so far has been written, or the timeout has passed.
+     * Returns false on timeout.
+     */
+    public static boolean flush(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (idle) {
+            while (pending.get() > 0) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    System.out.println("[ArtifactWriter] Flush timed out with " + pending.get() + " artifacts pending.");
+                    return false;
+                }
+                try {
+                    idle.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public static boolean flush() {
+        return flush(ConfigManager.getArtifactFlushTimeoutSeconds(), TimeUnit.SECONDS);
+    }
+
+    public static String metricsSummary() {
+        return "submitted=" + submitted.get()
+                + ", written=" + written.get()
+                + ", failed=" + failed.get()
+                + ", dropped=" + dropped.get()
+                + ", spilled=" + spilled.get()
+                + ", maxDepth=" + maxDepth.get()
+                + ", handoffP99=" + HANDOFF.toMap().get("p99Ms") + "ms"
+                + ", latencyP99=" + LATENCY.toMap().get("p99Ms") + "ms";
+    }
+
+    /**
+     * Write the queue metrics as JSON to metricsDir/artifact-writer.json.
+     */
+    public static Path writeMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("backpressure", Backpressure.fromConfig().name());
+        metrics.put("capacity", ConfigManager.getArtifactQueueCapacity());
+        metrics.put("submitted", submitted.get());
+        metrics.put("written", written.get());
+        metrics.put("failed", failed.get());
+        metrics.put("dropped", dropped.get());
+        metrics.put("spilled", spilled.get());
+        metrics.put("maxDepth", maxDepth.get());
+        metrics.put("handoff", HANDOFF.toMap());
+        metrics.put("latency", LATENCY.toMap());
+
+        Path dir = Paths.get(ConfigManager.getMetricsDir());
+        try {
+            Files.createDirectories(dir);
+            Path file = dir.resolve("artifact-writer.json");
+            Files.write(file, new Json().toJson(metrics).getBytes(StandardCharsets.UTF_8));
+            return file;
+        } catch (IOException e) {
+            System.out.println("[ArtifactWriter] Failed to write metrics: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public static int getQueueDepth() {
+        BlockingQueue<Task> current = queue;
+        return (current == null ? 0 : current.size()) + overflow.size();
+    }
+
+    // ================= INTERNAL IMPLEMENTATION =================
+
+    private static void enqueue(Task task) {
+        long start = System.nanoTime();
+        BlockingQueue<Task> target = queue();
+        submitted.incrementAndGet();
+        pending.incrementAndGet();
+
+        Backpressure backpressure = Backpressure.fromConfig();
+        // Spilled artifacts are newer than the queued ones; queuing past them would reorder the writes
+        boolean spilling = backpressure == Backpressure.SPILL && !overflow.isEmpty();
+        if (spilling || !target.offer(task)) {
+            switch (backpressure) {
+                case DROP_OLDEST:
+                    while (!target.offer(task)) {
+                        Task oldest = target.poll();
+                        if (oldest != null) {
+                            dropped.incrementAndGet();
+                            System.out.println("[ArtifactWriter] Queue full, dropped " + oldest.description);
+                            discard(oldest, "artifact queue full (artifactBackpressure=dropOldest)");
+                            done();
+                        }
+                    }
+                    break;
+                case SPILL:
+                    overflow.add(spill(task));
+                    break;
+                case BLOCK:
+                default:
+                    try {
+                        target.put(task);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        failed.incrementAndGet();
+                        done();
+                        return;
+                    }
+                    break;
+            }
+        }
+
+        maxDepth.accumulateAndGet(getQueueDepth(), Math::max);
+        HANDOFF.record(System.nanoTime() - start);
+    }
+
+    private static Task spill(Task task) {
+        if (task.data == null) {
+            // Already a file; queuing the reference is all that is needed
+            spilled.incrementAndGet();
+            return task;
+        }
+        try {
+            Path dir = Paths.get(ConfigManager.getArtifactSpillDir());
+            Files.createDirectories(dir);
+            Path file = dir.resolve("spill-" + spillSequence.incrementAndGet() + ".bin");
+            Files.write(file, task.data);
+            spilled.incrementAndGet();
+            return new Task(task.description, null, file, true, task.sink, task.enqueuedNanos);
+        } catch (IOException e) {
+            // Could not spill; keep the buffer in memory rather than lose the artifact
+            System.out.println("[ArtifactWriter] Spill failed, keeping " + task.description + " in memory: "
+                    + e.getMessage());
+            return task;
+        }
+    }
+
+    private static BlockingQueue<Task> queue() {
+        BlockingQueue<Task> current = queue;
+        if (current == null) {
+            synchronized (ArtifactWriter.class) {
+                current = queue;
+                if (current == null) {
+                    BlockingQueue<Task> created = new ArrayBlockingQueue<>(
+                            Math.max(1, ConfigManager.getArtifactQueueCapacity()));
+                    current = created;
+                    int threads = Math.max(1, ConfigManager.getArtifactWriterThreads());
+                    for (int i = 0; i < threads; i++) {
+                        Thread worker = new Thread(() -> drain(created), "artifact-writer-" + i);
+                        worker.setDaemon(true);
+                        worker.start();
+                    }
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> flush(), "artifact-writer-shutdown"));
+                    queue = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static void drain(BlockingQueue<Task> source) {
+        while (true) {
+            // Queued tasks are older than spilled ones (see enqueue), so the queue goes first
+            Task task = source.poll();
+            if (task == null) {
+                task = overflow.poll();
+            }
+            if (task == null) {
+                try {
+                    task = source.poll(200, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            if (task != null) {
+                write(task);
+            }
+        }
+    }
+
+    private static void write(Task task) {
+        try (InputStream in = task.data != null
+                ? new ByteArrayInputStream(task.data)
+                : Files.newInputStream(task.file)) {
+            task.sink.write(in);
+            written.incrementAndGet();
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            System.out.println("[ArtifactWriter] Failed to write " + task.description + ": " + e.getMessage());
+        } finally {
+            if (task.spillFile) {
+                try {
+                    Files.deleteIfExists(task.file);
+                } catch (IOException ignored) {
+                }
+            }
+            LATENCY.record(System.nanoTime() - task.enqueuedNanos);
+            done();
+        }
+    }
+
+    private static void discard(Task task, String reason) {
+        try {
+            task.sink.discard(reason);
+        } catch (Exception e) {
+            System.out.println("[ArtifactWriter] Failed to mark dropped " + task.description + ": " + e.getMessage());
+        }
+    }
+
+    private static void done() {
+        if (pending.decrementAndGet() == 0) {
+            synchronized (idle) {
+                idle.notifyAll();
+            }
+        }
+    }
+
+    private static final class Task {
+        private final String description;
+        private final byte[] data;
+        private final Path file;
+        private final boolean spillFile;
+        private final Sink sink;
+        private final long enqueuedNanos;
+
+        private Task(String description, byte[] data, Path file, boolean spillFile, Sink sink) {
+            this(description, data, file, spillFile, sink, System.nanoTime());
+        }
+
+        private Task(String description, byte[] data, Path file, boolean spillFile, Sink sink, long enqueuedNanos) {
+            this.description = description;
+            this.data = data;
+            this.file = file;
+            this.spillFile = spillFile;
+            this.sink = sink;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package CoreFramework.utils.reporting;
+
+import CoreFramework.config.ConfigManager;
+import jakarta.mail.Authenticator;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.PasswordAuthentication;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * EmailDispatcher sends mail from one background thread over one long-lived SMTP connection.
+ *
+ * Behavior:
+ *  - send(message): queues the message and returns at once; when the bounded queue is full the
+ *    message is dropped and counted, so a dead mail server can never stall a test
+ *  - the Transport is connected on first use and reused; a dropped connection is reopened on the next send
+ *  - a failed send is retried with exponential backoff (initial delay doubled per attempt, capped)
+ *  - flush(timeout) / shutdown(timeout): wait for the queue to drain; shared() registers a shutdown hook for it
+ *
+ * Host, port, STARTTLS, credentials, queue size and retries come from config.properties (see shared()).
+ */
+public class EmailDispatcher {
+
+    private static final long MAX_BACKOFF_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private static volatile EmailDispatcher shared;
+
+    private final String host;
+    private final int port;
+    private final String user;
+    private final String password;
+    private final Session session;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final BlockingQueue<Message> queue;
+    private final Thread worker;
+    private final Object idle = new Object();
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong connects = new AtomicLong();
+
+    private Transport transport;
+    private volatile boolean stopped;
+
+    public EmailDispatcher(String host, int port, boolean startTls, String user, String password,
+                           int queueCapacity, int maxAttempts, long initialBackoffMillis) {
+        this.host = host;
+        this.port = port;
+        this.user = user;
+        this.password = password;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = Math.max(1, initialBackoffMillis);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+
+        Properties props = new Properties();
+        props.put("mail.smtp.host", host);
+        props.put("mail.smtp.port", String.valueOf(port));
+        props.put("mail.smtp.auth", String.valueOf(hasCredentials()));
+        props.put("mail.smtp.starttls.enable", String.valueOf(startTls));
+        props.put("mail.smtp.connectiontimeout", "10000");
+        props.put("mail.smtp.timeout", "30000");
+        this.session = Session.getInstance(props, new Authenticator() {
+            @Override
+            protected PasswordAuthentication getPasswordAuthentication() {
+                return new PasswordAuthentication(user, password);
+            }
+        });
+
+        this.worker = new Thread(this::drain, "email-dispatcher");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * The dispatcher configured from config.properties, created on first use.
+     */
+    public static EmailDispatcher shared() {
+        EmailDispatcher current = shared;
+        if (current == null) {
+            synchronized (EmailDispatcher.class) {
+                current = shared;
+                if (current == null) {
+                    current = new EmailDispatcher(
+                            ConfigManager.getSmtpHost(),
+                            ConfigManager.getSmtpPort(),
+                            ConfigManager.isSmtpStartTls(),
+                            ConfigManager.getSmtpUser(),
+                            ConfigManager.getSmtpPassword(),
+                            ConfigManager.getEmailQueueCapacity(),
+                            ConfigManager.getEmailSendAttempts(),
+                            ConfigManager.getEmailRetryBackoffMillis());
+                    EmailDispatcher created = current;
+                    Runtime.getRuntime().addShutdownHook(new Thread(
+                            () -> created.shutdown(ConfigManager.getEmailDrainTimeoutSeconds(), TimeUnit.SECONDS),
+                            "email-dispatcher-shutdown"));
+                    shared = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * True once shared() has been used, so suite-end reporting does not create a dispatcher just to print it.
+     */
+    public static boolean isSharedStarted() {
+        return shared != null;
+    }
+
+    /**
+     * An empty message bound to this dispatcher's mail session.
+     */
+    public MimeMessage newMessage() {
+        return new MimeMessage(session);
+    }
+
+    /**
+     * Queue a message. Returns false if the queue is full or the dispatcher is shut down.
+     */
+    public boolean send(Message message) {
+        if (stopped) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        pending.incrementAndGet();
+        if (!queue.offer(message)) {
+            dropped.incrementAndGet();
+            done();
+            System.out.println("[EmailDispatcher] Queue full, dropped: " + subjectOf(message));
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Wait until every queued message is sent or given up on. Returns false on timeout.
+     */
+    public boolean flush(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (idle) {
+            while (pending.get() > 0) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    System.out.println("[EmailDispatcher] Flush timed out with " + pending.get() + " emails pending.");
+                    return false;
+                }
+                try {
+                    idle.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stop accepting mail, drain the queue (up to the timeout) and close the connection.
+     */
+    public boolean shutdown(long timeout, TimeUnit unit) {
+        stopped = true;
+        boolean drained = flush(timeout, unit);
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return drained;
+    }
+
+    public String metricsSummary() {
+        return "sent=" + sent.get()
+                + ", failed=" + failed.get()
+                + ", dropped=" + dropped.get()
+                + ", retries=" + retries.get()
+                + ", connections=" + connects.get()
+                + ", queued=" + queue.size();
+    }
+
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    public long getConnectCount() {
+        return connects.get();
+    }
+
+    // ================= INTERNAL IMPLEMENTATION =================
+
+    private void drain() {
+        try {
+            while (!stopped || !queue.isEmpty()) {
+                Message message = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (message != null) {
+                    deliver(message);
+                }
+            }
+        } catch (InterruptedException ignored) {
+            // shutdown(): whatever could be drained in time has been
+        } finally {
+            closeTransport();
+        }
+    }
+
+    private void deliver(Message message) throws InterruptedException {
+        try {
+            // Transport.send() does this implicitly; sendMessage() on a kept connection does not
+            message.saveChanges();
+        } catch (MessagingException e) {
+            failed.incrementAndGet();
+            System.err.println("[EmailDispatcher] Invalid message " + subjectOf(message) + ": " + e.getMessage());
+            done();
+            return;
+        }
+
+        long backoff = initialBackoffMillis;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                connectedTransport().sendMessage(message, message.getAllRecipients());
+                sent.incrementAndGet();
+                System.out.println("[EmailDispatcher] Sent: " + subjectOf(message));
+                done();
+                return;
+            } catch (MessagingException e) {
+                // The connection may be half-dead; the next attempt reconnects
+                closeTransport();
+                if (attempt == maxAttempts) {
+                    failed.incrementAndGet();
+                    System.err.println("[EmailDispatcher] Giving up on " + subjectOf(message) + " after "
+                            + attempt + " attempts: " + e.getMessage());
+                    done();
+                    return;
+                }
+                retries.incrementAndGet();
+                System.out.println("[EmailDispatcher] Send failed (attempt " + attempt + "), retrying in "
+                        + backoff + "ms: " + e.getMessage());
+                Thread.sleep(backoff);
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            }
+        }
+    }
+
+    private Transport connectedTransport() throws MessagingException {
+        if (transport == null) {
+            transport = session.getTransport("smtp");
+        }
+        // isConnected() sends a NOOP, so a connection the server closed while idle is noticed here
+        if (!transport.isConnected()) {
+            if (hasCredentials()) {
+                transport.connect(host, port, user, password);
+            } else {
+                transport.connect(host, port, null, null);
+            }
+            connects.incrementAndGet();
+        }
+        return transport;
+    }
+
+    private void closeTransport() {
+        if (transport != null) {
+            try {
+                transport.close();
+            } catch (MessagingException ignored) {
+            }
+        }
+    }
+
+    private boolean hasCredentials() {
+        return user != null && !user.isBlank() && password != null && !password.isBlank();
+    }
+
+    private void done() {
+        if (pending.decrementAndGet() == 0) {
+            synchronized (idle) {
+                idle.notifyAll();
+            }
+        }
+    }
+
+    private static String subjectOf(Message message) {
+        try {
+            return String.valueOf(message.getSubject());
+        } catch (MessagingException e) {
+            return "(no subject)";
+        }
+    }
+}
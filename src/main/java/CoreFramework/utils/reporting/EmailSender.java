@@ -6,13 +6,14 @@ import jakarta.activation.DataSource;
 import jakarta.mail.*;
 import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeBodyPart;
-import jakarta.mail.internet.MimeMessage;
 import jakarta.mail.internet.MimeMultipart;
 import jakarta.mail.util.ByteArrayDataSource;
 
-import java.util.Properties;
-
 
+/**
+ * Builds the failure emails and hands them to EmailDispatcher, which sends them in the background
+ * over one kept-alive SMTP connection (smtpHost / smtpPort / smtpStartTls).
+ */
 public class EmailSender {
 
     /**
@@ -20,11 +21,24 @@ public class EmailSender {
      * (You can keep this for simple cases if you want.)
      */
     public static void sendFailureEmailHtml(String[] recipients, String subject, String htmlBody) {
-        sendFailureEmailHtmlWithScreenshot(recipients, subject, htmlBody, null);
+        sendFailureEmailHtmlWithScreenshot(recipients, subject, htmlBody, (byte[]) null);
+    }
+
+    /**
+     * Send HTML email with the failure screenshot inline, reusing the already captured bytes.
+     */
+    public static void sendFailureEmailHtmlWithScreenshot(
+            String[] recipients,
+            String subject,
+            String htmlBody,
+            Screenshot screenshot
+    ) {
+        sendFailureEmailHtmlWithScreenshot(recipients, subject, htmlBody,
+                screenshot == null ? null : screenshot.bytes());
     }
 
     /**
-     * Send HTML email with optional inline screenshot.
+     * Queue an HTML email with optional inline screenshot; returns without waiting for SMTP.
      * If screenshotBytes != null, it will be attached as inline image and referenced by cid:screenshot.
      */
     public static void sendFailureEmailHtmlWithScreenshot(
@@ -55,24 +69,9 @@ public class EmailSender {
             return;
         }
 
-        final String host = "smtp.gmail.com";
-        final int port = 587;
-
-        Properties props = new Properties();
-        props.put("mail.smtp.auth", "true");
-        props.put("mail.smtp.starttls.enable", "true");
-        props.put("mail.smtp.host", host);
-        props.put("mail.smtp.port", String.valueOf(port));
-
-        Session session = Session.getInstance(props, new Authenticator() {
-            @Override
-            protected PasswordAuthentication getPasswordAuthentication() {
-                return new PasswordAuthentication(smtpUser, smtpPassword);
-            }
-        });
-
+        EmailDispatcher dispatcher = EmailDispatcher.shared();
         try {
-            Message message = new MimeMessage(session);
+            Message message = dispatcher.newMessage();
             message.setFrom(new InternetAddress(smtpUser));
 
             InternetAddress[] toAddresses = new InternetAddress[recipients.length];
@@ -103,11 +102,11 @@ public class EmailSender {
 
             message.setContent(related);
 
-            Transport.send(message);
-
-            System.out.println("[EmailSender] HTML failure email sent to: " + String.join(", ", recipients));
+            if (dispatcher.send(message)) {
+                System.out.println("[EmailSender] HTML failure email queued for: " + String.join(", ", recipients));
+            }
         } catch (MessagingException e) {
-            System.err.println("[EmailSender] Failed to send email: " + e.getMessage());
+            System.err.println("[EmailSender] Failed to build email: " + e.getMessage());
             e.printStackTrace();
         }
     }
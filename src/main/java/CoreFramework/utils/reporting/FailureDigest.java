@@ -0,0 +1,376 @@
+package CoreFramework.utils.reporting;
+
+import CoreFramework.config.ConfigManager;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * FailureDigest sits in front of EmailSender so a failure storm (e.g. the site is down) sends a few emails
+ * instead of one per test.
+ *
+ * Behavior:
+ *  - report(failure): failures with the same signature (exception type + top application frames + failing
+ *    locator) within emailDigestWindowSeconds are collected into one group
+ *  - when the window closes, a group of one gets the usual failure email; a bigger group gets one digest
+ *    with the count, the affected tests and the first test's steps and screenshot
+ *  - at most emailRateLimitPerHour emails per recipient list; suppressed groups are counted and
+ *    mentioned in the next email that goes out
+ *  - flush(): closes every open window at once (TestListener calls it at suite end, before the
+ *    email dispatcher drains)
+ *  - emailDigestWindowSeconds=0 sends every failure immediately, as before
+ */
+public final class FailureDigest {
+
+    private static final List<String> SEVERITY_ORDER =
+            Arrays.asList("BLOCKER", "CRITICAL", "NORMAL", "MINOR", "TRIVIAL", "UNSPECIFIED");
+
+    // Frames of these packages are the same for every failure, so they say nothing about the cause
+    private static final String[] LIBRARY_PACKAGES = {
+            "java.", "javax.", "jdk.", "sun.", "com.sun.", "org.openqa.selenium.", "org.testng.",
+            "io.qameta.", "org.aspectj.", "org.apache.maven."
+    };
+
+    private static final Map<String, Group> OPEN = new LinkedHashMap<>();
+    private static final Map<String, Deque<Long>> SENT_AT = new HashMap<>();
+    private static final Map<String, Integer> SUPPRESSED = new HashMap<>();
+
+    private static final AtomicLong failures = new AtomicLong();
+    private static final AtomicLong singleEmails = new AtomicLong();
+    private static final AtomicLong digests = new AtomicLong();
+    private static final AtomicLong suppressed = new AtomicLong();
+
+    private static volatile ScheduledExecutorService scheduler;
+
+    private FailureDigest() {
+    }
+
+    /**
+     * Everything the failure email needs, captured on the test thread.
+     */
+    public static final class Failure {
+        private final String testName;
+        private final String className;
+        private final String description;
+        private final String severity;
+        private final String signature;
+        private final String exceptionType;
+        private final List<String> steps;
+        private final List<String> actions;
+        private final Screenshot screenshot;
+        private final long timeMillis = System.currentTimeMillis();
+
+        public Failure(String testName, String className, String description, String severity,
+                       String signature, String exceptionType,
+                       List<String> steps, List<String> actions, Screenshot screenshot) {
+            this.testName = testName;
+            this.className = className;
+            this.description = description;
+            this.severity = severity;
+            this.signature = signature;
+            this.exceptionType = exceptionType;
+            this.steps = steps;
+            this.actions = actions;
+            this.screenshot = screenshot;
+        }
+    }
+
+    /**
+     * Signature used for grouping: exception type, first application frames and the failing locator.
+     */
+    public static String signatureOf(Throwable error, String failedTarget) {
+        StringBuilder signature = new StringBuilder(error == null ? "UnknownFailure" : error.getClass().getName());
+        if (error != null) {
+            List<String> frames = new ArrayList<>();
+            for (StackTraceElement frame : error.getStackTrace()) {
+                if (!isLibraryFrame(frame.getClassName())) {
+                    frames.add(frame.getClassName() + "." + frame.getMethodName() + ":" + frame.getLineNumber());
+                    if (frames.size() == ConfigManager.getEmailDigestSignatureFrames()) {
+                        break;
+                    }
+                }
+            }
+            if (!frames.isEmpty()) {
+                signature.append(" at ").append(String.join(" < ", frames));
+            }
+        }
+        if (failedTarget != null) {
+            signature.append(" on ").append(failedTarget);
+        }
+        return signature.toString();
+    }
+
+    public static void report(Failure failure) {
+        failures.incrementAndGet();
+        int window = ConfigManager.getEmailDigestWindowSeconds();
+        if (window <= 0) {
+            send(new Group(failure));
+            return;
+        }
+        synchronized (FailureDigest.class) {
+            Group group = OPEN.get(failure.signature);
+            if (group != null) {
+                group.failures.add(failure);
+                return;
+            }
+            OPEN.put(failure.signature, new Group(failure));
+        }
+        scheduler().schedule(() -> close(failure.signature), window, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Send every open group now instead of waiting for its window (e.g. at suite end).
+     */
+    public static void flush() {
+        List<String> signatures;
+        synchronized (FailureDigest.class) {
+            signatures = new ArrayList<>(OPEN.keySet());
+        }
+        for (String signature : signatures) {
+            close(signature);
+        }
+    }
+
+    public static String metricsSummary() {
+        return "failures=" + failures.get()
+                + ", singleEmails=" + singleEmails.get()
+                + ", digests=" + digests.get()
+                + ", suppressedByRateLimit=" + suppressed.get();
+    }
+
+    // ================= INTERNAL IMPLEMENTATION =================
+
+    private static void close(String signature) {
+        Group group;
+        synchronized (FailureDigest.class) {
+            group = OPEN.remove(signature);
+        }
+        if (group != null) {
+            send(group);
+        }
+    }
+
+    private static void send(Group group) {
+        String[] recipients = ConfigManager.getNotificationEmails();
+        String recipientsKey = String.join(",", Arrays.stream(recipients).sorted().toArray(String[]::new));
+
+        int suppressedBefore;
+        synchronized (FailureDigest.class) {
+            if (!allowed(recipientsKey)) {
+                suppressed.incrementAndGet();
+                SUPPRESSED.merge(recipientsKey, group.failures.size(), Integer::sum);
+                System.out.println("[FailureDigest] Rate limit reached for " + recipientsKey + ", suppressed email for "
+                        + group.failures.size() + " failure(s): " + group.signature);
+                return;
+            }
+            Integer count = SUPPRESSED.remove(recipientsKey);
+            suppressedBefore = count == null ? 0 : count;
+        }
+
+        Failure first = group.failures.get(0);
+        String subject;
+        String html;
+        if (group.failures.size() == 1) {
+            singleEmails.incrementAndGet();
+            subject = "[Automation Failure][" + first.severity + "] "
+                    + first.testName + " is not working on production";
+            html = singleHtml(first, suppressedBefore);
+        } else {
+            digests.incrementAndGet();
+            subject = "[Automation Failure][" + group.highestSeverity() + "] "
+                    + group.failures.size() + " tests failing with " + simpleName(first.exceptionType)
+                    + " on production";
+            html = digestHtml(group, suppressedBefore);
+        }
+        EmailSender.sendFailureEmailHtmlWithScreenshot(recipients, subject, html, first.screenshot);
+    }
+
+    /**
+     * Sliding one-hour window of emails per recipient list. Caller holds the class lock.
+     */
+    private static boolean allowed(String recipientsKey) {
+        int limit = ConfigManager.getEmailRateLimitPerHour();
+        if (limit <= 0) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        Deque<Long> sent = SENT_AT.computeIfAbsent(recipientsKey, k -> new ArrayDeque<>());
+        while (!sent.isEmpty() && now - sent.peekFirst() > TimeUnit.HOURS.toMillis(1)) {
+            sent.pollFirst();
+        }
+        if (sent.size() >= limit) {
+            return false;
+        }
+        sent.addLast(now);
+        return true;
+    }
+
+    private static String singleHtml(Failure failure, int suppressedBefore) {
+        StringBuilder html = new StringBuilder();
+        html.append("<html><body style=\"font-family: Arial, sans-serif;\">");
+
+        html.append("<h2 style=\"color:#c0392b;\">Automated test FAILED</h2>");
+
+        html.append("<p>");
+        html.append("<b>Environment:</b> ").append(ConfigManager.getEnv()).append("<br/>");
+        html.append("<b>Severity:</b> ").append(escapeHtml(failure.severity)).append("<br/>");
+        html.append("<b>Class:</b> ").append(failure.className).append("<br/>");
+        html.append("<b>Test:</b> ").append(failure.testName).append("</p>");
+
+        if (failure.description != null && !failure.description.isBlank()) {
+            html.append("<p><b>Description:</b> ")
+                    .append(escapeHtml(failure.description))
+                    .append("</p>");
+        }
+
+        appendDetails(html, failure);
+        appendFooter(html, suppressedBefore);
+        return html.toString();
+    }
+
+    private static String digestHtml(Group group, int suppressedBefore) {
+        Failure first = group.failures.get(0);
+        Failure last = group.failures.get(group.failures.size() - 1);
+        SimpleDateFormat time = new SimpleDateFormat("HH:mm:ss");
+
+        StringBuilder html = new StringBuilder();
+        html.append("<html><body style=\"font-family: Arial, sans-serif;\">");
+
+        html.append("<h2 style=\"color:#c0392b;\">").append(group.failures.size())
+                .append(" automated tests FAILED the same way</h2>");
+
+        html.append("<p>");
+        html.append("<b>Environment:</b> ").append(ConfigManager.getEnv()).append("<br/>");
+        html.append("<b>Highest severity:</b> ").append(escapeHtml(group.highestSeverity())).append("<br/>");
+        html.append("<b>Between:</b> ").append(time.format(new Date(first.timeMillis)))
+                .append(" and ").append(time.format(new Date(last.timeMillis))).append("<br/>");
+        html.append("<b>Signature:</b> <code>").append(escapeHtml(group.signature)).append("</code></p>");
+
+        html.append("<h3>Affected tests</h3>");
+        html.append("<table cellpadding=\"4\" style=\"border-collapse:collapse;\" border=\"1\">");
+        html.append("<tr><th>Class</th><th>Test</th><th>Severity</th></tr>");
+        for (Failure failure : group.failures) {
+            html.append("<tr><td>").append(escapeHtml(failure.className))
+                    .append("</td><td>").append(escapeHtml(failure.testName))
+                    .append("</td><td>").append(escapeHtml(failure.severity)).append("</td></tr>");
+        }
+        html.append("</table>");
+
+        html.append("<h3>First failure: ").append(escapeHtml(first.testName)).append("</h3>");
+        appendDetails(html, first);
+        appendFooter(html, suppressedBefore);
+        return html.toString();
+    }
+
+    private static void appendDetails(StringBuilder html, Failure failure) {
+        html.append("<h3>Steps</h3>");
+        if (failure.steps == null || failure.steps.isEmpty()) {
+            html.append("<p><i>No steps were logged.</i></p>");
+        } else {
+            html.append("<ol>");
+            for (String step : failure.steps) {
+                html.append("<li>").append(escapeHtml(step)).append("</li>");
+            }
+            html.append("</ol>");
+        }
+
+        if (failure.actions != null && !failure.actions.isEmpty()) {
+            html.append("<h3>Last UI actions</h3><ol>");
+            for (String action : failure.actions) {
+                html.append("<li><code>").append(escapeHtml(action)).append("</code></li>");
+            }
+            html.append("</ol>");
+        }
+
+        html.append("<h3>Screenshot</h3>");
+        if (failure.screenshot != null && failure.screenshot.size() > 0) {
+            html.append("<p>The screenshot at the moment of failure:</p>");
+            // IMPORTANT: this cid "screenshot" must match Content-ID in EmailSender
+            html.append("<img src=\"cid:screenshot\" style=\"max-width:900px;border:1px solid #ccc;\"/>");
+        } else {
+            html.append("<p><i>Screenshot not available.</i></p>");
+        }
+    }
+
+    private static void appendFooter(StringBuilder html, int suppressedBefore) {
+        if (suppressedBefore > 0) {
+            html.append("<p><i>").append(suppressedBefore)
+                    .append(" further failure(s) were not emailed because of the rate limit; see the Allure report.</i></p>");
+        }
+        html.append("<p style=\"margin-top:20px;\">Best regards,<br/>Automation Framework</p>");
+        html.append("</body></html>");
+    }
+
+    private static boolean isLibraryFrame(String className) {
+        for (String prefix : LIBRARY_PACKAGES) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String simpleName(String className) {
+        return className == null ? "an error" : className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    private static String escapeHtml(String input) {
+        if (input == null) return "";
+        return input
+                .replace("&", "&amp;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;")
+                .replace("\"", "&quot;");
+    }
+
+    private static ScheduledExecutorService scheduler() {
+        ScheduledExecutorService current = scheduler;
+        if (current == null) {
+            synchronized (FailureDigest.class) {
+                current = scheduler;
+                if (current == null) {
+                    current = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                        Thread thread = new Thread(runnable, "failure-digest");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    scheduler = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static final class Group {
+        private final String signature;
+        private final List<Failure> failures = new ArrayList<>();
+
+        private Group(Failure first) {
+            this.signature = first.signature;
+            this.failures.add(first);
+        }
+
+        private String highestSeverity() {
+            String highest = "UNSPECIFIED";
+            for (Failure failure : failures) {
+                int rank = SEVERITY_ORDER.indexOf(failure.severity);
+                if (rank >= 0 && rank < SEVERITY_ORDER.indexOf(highest)) {
+                    highest = failure.severity;
+                }
+            }
+            return highest;
+        }
+    }
+}
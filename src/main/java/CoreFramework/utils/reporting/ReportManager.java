@@ -1,13 +1,21 @@
 package CoreFramework.utils.reporting;
 
 import CoreFramework.actions.DriverFactory;
+import CoreFramework.utils.ArtifactStore;
+import CoreFramework.utils.VideoRecorder;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
 import io.qameta.allure.Attachment;
-import org.openqa.selenium.OutputType;
-import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 
-import java.io.File;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Central place for Allure reporting:
@@ -17,21 +25,22 @@ import java.nio.file.*;
  *  - Video attachments (when a video file already exists)
  *
  * This class does NOT record video itself.
- * It only reads existing files and attaches them to Allure.
+ * It only streams existing files to Allure; no attachment is read into a byte[].
+ *
+ * Screenshots and failure videos are kept in ArtifactStore (deduplicated, outside src/).
+ * Screenshot / video writes are registered with Allure on the calling thread (so they land on
+ * the right test) and then written by ArtifactWriter in the background.
  */
 public class ReportManager {
 
-    private static final Path ARTIFACTS_BASE =  Paths.get("src", "test", "resources", "Artifacts");
-    private static final Path SCREENSHOTS_DIR = ARTIFACTS_BASE.resolve("ScreenShots");
-    private static final Path VIDEOS_DIR      = ARTIFACTS_BASE.resolve("VideoRecords");
+    private static final Map<String, String> VIDEO_TYPES = Map.of(
+            "avi", "video/x-msvideo",
+            "mp4", "video/mp4",
+            "webm", "video/webm");
 
-    static {
-        try {
-            Files.createDirectories(SCREENSHOTS_DIR);
-            Files.createDirectories(VIDEOS_DIR);
-        } catch (Exception ignored) {
-        }
-    }
+    private static final AtomicLong screenshotsTaken = new AtomicLong();
+    private static final AtomicLong screenshotCaptureNanos = new AtomicLong();
+    private static final AtomicLong screenshotBytesWritten = new AtomicLong();
 
     // ======================== PUBLIC API ========================
 
@@ -41,34 +50,41 @@ public class ReportManager {
      *  - Execution log
      */
     public static void attachFailureScreenshot(String testName) {
-        attachScreenshot("Failure - " + testName, testName);
+        captureFailureScreenshot(testName);
 //        attachExecutionLog();
     }
 
+    /**
+     * Capture ONE screenshot for a failed test, save it to disk and attach it to Allure.
+     * The returned Screenshot can be reused (e.g. for the failure email) without another capture.
+     * Returns null when there is no driver or the capture fails.
+     */
+    public static Screenshot captureFailureScreenshot(String testName) {
+        return captureAndAttach("Failure - " + testName, testName);
+    }
+
     /**
      * Attach common failure artifacts:
      *  - Screenshot
      *  - Execution log
-     *  - Video (if videoFilePath is not null/empty and exists)
+     *  - Video (if videoFilePath is not null/empty and exists), moved into ArtifactStore first
      */
     public static void attachFailureVideoRecord(String testName, String videoFilePath) {
         attachScreenshot("Failure - " + testName, testName);
 //        attachExecutionLog();
-        if (videoFilePath != null && !videoFilePath.isEmpty()) {
-            attachVideo("Video - " + testName, videoFilePath);
+        String storedVideo = VideoRecorder.keep(videoFilePath, testName);
+        if (storedVideo != null) {
+            attachVideo("Video - " + testName, storedVideo);
         }
     }
 
     /**
      * Take and attach a screenshot for the given test name.
-     * The screenshot file is saved under:
-     *  target/artifacts/screenshots/<testName>_<timestamp>.png
+     * The screenshot is stored once in ArtifactStore and linked under:
+     *  <artifactStoreDir>/refs/<testName>_<millis>_t<thread>_<seq>.<hash12>.png
      */
     public static void attachScreenshot(String displayName, String testName) {
-        Path path = takeScreenshotToFile(testName);
-        if (path != null) {
-            attachScreenshotInternal(displayName, path);
-        }
+        captureAndAttach(displayName, testName);
     }
 
     /**
@@ -86,20 +102,50 @@ public class ReportManager {
     }
 
     /**
-     * Attach an existing video file (MP4) to Allure.
+     * Screenshots taken, average capture time and bytes written to disk, for printing at suite end.
+     */
+    public static String screenshotMetricsSummary() {
+        long taken = screenshotsTaken.get();
+        long avgMillis = taken == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(screenshotCaptureNanos.get() / taken);
+        return "screenshots=" + taken + ", avgCapture=" + avgMillis + "ms, bytesWritten=" + screenshotBytesWritten.get();
+    }
+
+    /**
+     * Attach an existing video file (AVI / MP4 / WebM) to Allure.
      * The file must already exist at the provided path.
      */
     public static void attachVideo(String name, String videoFilePath) {
-        attachVideoInternal(name, videoFilePath);
+        Path path = Paths.get(videoFilePath);
+        if (!Files.exists(path)) {
+            return;
+        }
+        String extension = extensionOf(path);
+        attachFile(name, VIDEO_TYPES.getOrDefault(extension, "video/mp4"), extension, path);
+    }
+
+    /**
+     * Attach any file to Allure without loading it into memory.
+     * The file is streamed by ArtifactWriter, so it must not be deleted before ArtifactWriter.flush().
+     */
+    public static void attachFile(String name, String type, String extension, Path file) {
+        attachFile(Allure.getLifecycle(), name, type, extension, file);
+    }
+
+    /**
+     * Same as attachFile(name, type, extension, file), for the current test of the given lifecycle.
+     */
+    public static void attachFile(AllureLifecycle lifecycle, String name, String type, String extension, Path file) {
+        // The attachment must be registered while this thread still owns the test result
+        String source = lifecycle.prepareAttachment(name, type, "." + extension);
+        ArtifactWriter.submit(name, file, allureSink(lifecycle, source, in -> lifecycle.writeAttachment(source, in)));
     }
 
     // ================= INTERNAL IMPLEMENTATION =================
 
     /**
-     * Take a screenshot with WebDriver and save it to a file
-     * under the screenshots directory.
+     * Capture once, write the same bytes to the screenshots directory and to Allure.
      */
-    private static Path takeScreenshotToFile(String testName) {
+    private static Screenshot captureAndAttach(String displayName, String testName) {
         WebDriver driver;
         try {
             driver = DriverFactory.getDriver();
@@ -108,28 +154,58 @@ public class ReportManager {
             return null;
         }
 
-        if (driver == null) {
-            return null;
-        }
-
+        Screenshot screenshot;
         try {
-            File src = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
-            String fileName = testName + "_" + System.currentTimeMillis() + ".png";
-            Path dest = SCREENSHOTS_DIR.resolve(fileName);
-            Files.copy(src.toPath(), dest, StandardCopyOption.REPLACE_EXISTING);
-            return dest;
+            screenshot = Screenshot.capture(driver);
         } catch (Exception e) {
+            System.out.println("[ReportManager] Failed to capture screenshot: " + e.getMessage());
             return null;
         }
+        if (screenshot == null) {
+            return null;
+        }
+
+        // Stored first, then the Allure copy is streamed from the stored file in the same task
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        String source = lifecycle.prepareAttachment(displayName, "image/png", ".png");
+        ArtifactWriter.submit(displayName, screenshot.bytes(), allureSink(lifecycle, source, in -> {
+            Path stored = ArtifactStore.shared().store(in, testName, "png");
+            screenshotBytesWritten.addAndGet(screenshot.size());
+            try (InputStream file = Files.newInputStream(stored)) {
+                lifecycle.writeAttachment(source, file);
+            }
+        }));
+
+        screenshotsTaken.incrementAndGet();
+        screenshotCaptureNanos.addAndGet(screenshot.getCaptureNanos());
+        System.out.println("[ReportManager] Screenshot for " + testName + ": capture="
+                + TimeUnit.NANOSECONDS.toMillis(screenshot.getCaptureNanos()) + "ms, "
+                + screenshot.size() + " bytes");
+        return screenshot;
     }
 
-    @Attachment(value = "{name}", type = "image/png")
-    private static byte[] attachScreenshotInternal(String name, Path filePath) {
-        try {
-            return Files.readAllBytes(filePath);
-        } catch (Exception e) {
-            return new byte[0];
-        }
+    /**
+     * Sink for an attachment already registered with Allure. If ArtifactWriter drops the artifact, the attachment
+     * file gets a short note with the reason instead of being left missing in the report.
+     */
+    private static ArtifactWriter.Sink allureSink(AllureLifecycle lifecycle, String source, ArtifactWriter.Sink writer) {
+        return new ArtifactWriter.Sink() {
+            @Override
+            public void write(InputStream data) throws IOException {
+                writer.write(data);
+            }
+
+            @Override
+            public void discard(String reason) {
+                byte[] note = ("Attachment dropped: " + reason).getBytes(StandardCharsets.UTF_8);
+                lifecycle.writeAttachment(source, new ByteArrayInputStream(note));
+            }
+        };
+    }
+
+    private static String extensionOf(Path file) {
+        String fileName = file.getFileName().toString();
+        return fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase();
     }
 
     @Attachment(value = "{attachName}", type = "text/plain")
@@ -164,18 +240,6 @@ public class ReportManager {
 //        }
 //        return new byte[0];
 //    }
-
-    @Attachment(value = "{name}", type = "video/mp4")
-    private static byte[] attachVideoInternal(String name, String videoFilePath) {
-        try {
-            Path path = Paths.get(videoFilePath);
-            if (Files.exists(path)) {
-                return Files.readAllBytes(path);
-            }
-        } catch (Exception ignored) {
-        }
-        return new byte[0];
-    }
 }
 
 
@@ -0,0 +1,70 @@
+package CoreFramework.utils.reporting;
+
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * One PNG screenshot, captured and decoded once, then shared read-only by every consumer
+ * (Allure attachment, file on disk, failure email).
+ *
+ * The bytes are never copied or modified after capture: outside this package they are only
+ * reachable as a read-only ByteBuffer or an InputStream.
+ */
+public final class Screenshot {
+
+    private final byte[] png;
+    private final long captureNanos;
+
+    private Screenshot(byte[] png, long captureNanos) {
+        this.png = png;
+        this.captureNanos = captureNanos;
+    }
+
+    /**
+     * Take a screenshot with the driver, or return null if the driver cannot take one.
+     */
+    public static Screenshot capture(WebDriver driver) {
+        if (!(driver instanceof TakesScreenshot)) {
+            return null;
+        }
+        long start = System.nanoTime();
+        // BYTES = the base64 payload decoded once, no temp file
+        byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        return new Screenshot(png, System.nanoTime() - start);
+    }
+
+    public int size() {
+        return png.length;
+    }
+
+    public long getCaptureNanos() {
+        return captureNanos;
+    }
+
+    public ByteBuffer asReadOnlyBuffer() {
+        return ByteBuffer.wrap(png).asReadOnlyBuffer();
+    }
+
+    public InputStream openStream() {
+        return new ByteArrayInputStream(png);
+    }
+
+    public void writeTo(Path file) throws IOException {
+        Files.write(file, png);
+    }
+
+    /**
+     * The backing array, for consumers in this package that only read it (Allure, mail data source).
+     */
+    byte[] bytes() {
+        return png;
+    }
+}
@@ -0,0 +1,159 @@
+package Benchmarks;
+
+import CoreFramework.utils.reporting.ActionJournal;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.FileAppender;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.AllureResultsWriter;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.model.TestResultContainer;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.FileHandler;
+import java.util.logging.Handler;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+
+/**
+ * Compares the cost a test thread pays per logged UI action:
+ *  - before: java.util.logging with string concatenation, written synchronously (what UIActions did)
+ *  - after: ActionJournal.action(...), flushed to Logback by the background thread
+ *  - after, level off: the journal logger disabled (entries still kept for the failure email)
+ *  - after, Allure steps: journalAllureSteps=true (off by default), with an open Allure test case so every
+ *    action really becomes a step
+ *
+ * Both sides write to files under target/benchmark so console speed does not skew the result.
+ * Optional system property: benchmark.actions (default 10000).
+ */
+public class ActionJournalBenchmark {
+
+    private static final String LOCATOR = "//input[@id='password']";
+
+    public static void main(String[] args) throws Exception {
+        int actions = Integer.getInteger("benchmark.actions", 10_000);
+        Path dir = Paths.get("target", "benchmark");
+        Files.createDirectories(dir);
+
+        // Large enough that the flusher never has to drop entries during the run
+        System.setProperty("journalCapacity", String.valueOf(actions * 2));
+        System.setProperty("journalAllureSteps", "false");
+        ch.qos.logback.classic.Logger journalLogger = journalToFile(dir.resolve("journal.log"));
+        Logger julLogger = julToFile(dir.resolve("jul.log"));
+
+        // Warm-up so JIT compilation is not measured
+        runJul(julLogger, actions);
+        runJournal(actions);
+        ActionJournal.flush();
+
+        System.out.printf("%-22s %10s %14s %14s%n", "variant", "actions", "actions/sec", "bytes/action");
+        report("jul (before)", actions, () -> runJul(julLogger, actions));
+        report("journal", actions, () -> runJournal(actions));
+        long flushStart = System.nanoTime();
+        ActionJournal.flush();
+        System.out.println("  background flush of the journal took "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - flushStart) + "ms (off the test thread)");
+
+        journalLogger.setLevel(Level.OFF);
+        report("journal, level off", actions, () -> runJournal(actions));
+        ActionJournal.flush();
+
+        System.setProperty("journalAllureSteps", "true");
+        startAllureTestCase();
+        runJournal(actions);
+        report("journal, Allure steps", actions, () -> runJournal(actions));
+        System.setProperty("journalAllureSteps", "false");
+        ActionJournal.flush();
+        System.out.println("[ActionJournal] " + ActionJournal.metricsSummary());
+    }
+
+    private static void runJul(Logger logger, int actions) {
+        for (int i = 0; i < actions; i++) {
+            logger.info("Clicked element: " + LOCATOR);
+        }
+    }
+
+    private static void runJournal(int actions) {
+        for (int i = 0; i < actions; i++) {
+            long start = System.nanoTime();
+            ActionJournal.action(ActionJournal.Type.CLICK, LOCATOR, start, ActionJournal.Outcome.OK, null);
+        }
+    }
+
+    /**
+     * An Allure test case on this thread, with a lifecycle that discards what it would write.
+     */
+    private static void startAllureTestCase() {
+        AllureLifecycle lifecycle = new AllureLifecycle(new AllureResultsWriter() {
+            @Override
+            public void write(TestResult testResult) {
+            }
+
+            @Override
+            public void write(TestResultContainer testResultContainer) {
+            }
+
+            @Override
+            public void write(String source, InputStream attachment) {
+            }
+        });
+        Allure.setLifecycle(lifecycle);
+        String uuid = UUID.randomUUID().toString();
+        lifecycle.scheduleTestCase(new TestResult().setUuid(uuid).setName("benchmark"));
+        lifecycle.startTestCase(uuid);
+    }
+
+    private static void report(String name, int actions, Runnable run) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        run.run();
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        System.out.printf("%-22s %10d %14.0f %14d%n", name, actions,
+                actions / (elapsed / 1_000_000_000.0), allocated / actions);
+    }
+
+    private static Logger julToFile(Path file) throws IOException {
+        Logger logger = Logger.getLogger("benchmark.jul");
+        logger.setUseParentHandlers(false);
+        Handler handler = new FileHandler(file.toString());
+        handler.setFormatter(new SimpleFormatter());
+        logger.addHandler(handler);
+        return logger;
+    }
+
+    private static ch.qos.logback.classic.Logger journalToFile(Path file) {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{HH:mm:ss.SSS} %-5level %logger{36} - %msg%n");
+        encoder.start();
+
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(context);
+        appender.setFile(file.toString());
+        appender.setAppend(false);
+        appender.setEncoder(encoder);
+        appender.start();
+
+        ch.qos.logback.classic.Logger logger = context.getLogger("CoreFramework.journal");
+        logger.setAdditive(false);
+        logger.setLevel(Level.INFO);
+        logger.addAppender(appender);
+        return logger;
+    }
+}
@@ -0,0 +1,51 @@
+package Benchmarks;
+
+import CoreFramework.actions.BrowserProfile;
+import CoreFramework.actions.DriverFactory;
+import CoreFramework.config.ConfigManager;
+import org.openqa.selenium.WebDriver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares browser launch time and page load time of the default and fast profiles.
+ *
+ * Run from the IDE (main method) or with:
+ *   mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=Benchmarks.BrowserProfileBenchmark
+ *
+ * Optional system properties: benchmark.launches (default 3), benchmark.pageLoads (default 5).
+ */
+public class BrowserProfileBenchmark {
+
+    public static void main(String[] args) {
+        int launches = Integer.getInteger("benchmark.launches", 3);
+        int pageLoads = Integer.getInteger("benchmark.pageLoads", 5);
+        String url = ConfigManager.getBaseUrl();
+
+        System.out.printf("%-8s %12s %14s%n", "profile", "avgLaunch", "avgPageLoad");
+        for (BrowserProfile profile : BrowserProfile.values()) {
+            long launchNanos = 0;
+            long loadNanos = 0;
+
+            for (int i = 0; i < launches; i++) {
+                long start = System.nanoTime();
+                WebDriver driver = DriverFactory.createDriver(profile);
+                launchNanos += System.nanoTime() - start;
+                try {
+                    for (int j = 0; j < pageLoads; j++) {
+                        driver.navigate().to("about:blank");
+                        long loadStart = System.nanoTime();
+                        driver.navigate().to(url);
+                        loadNanos += System.nanoTime() - loadStart;
+                    }
+                } finally {
+                    driver.quit();
+                }
+            }
+
+            System.out.printf("%-8s %10dms %12dms%n", profile,
+                    TimeUnit.NANOSECONDS.toMillis(launchNanos / launches),
+                    TimeUnit.NANOSECONDS.toMillis(loadNanos / ((long) launches * pageLoads)));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package Benchmarks;
+
+import CoreFramework.listeners.VirtualThreadExecutorFactory;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares platform-thread and virtual-thread workers driving many I/O-bound "sessions".
+ *
+ * Each session sends a series of blocking HTTP calls to a local stand-in server that answers
+ * after a fixed delay, like a WebDriver command waiting on the browser. Needs Java 21 for the
+ * virtual-thread half; on older JVMs only the platform result is printed.
+ *
+ * Optional system properties: benchmark.sessions (default 500), benchmark.commands (default 20),
+ * benchmark.latencyMs (default 20), benchmark.platformThreads (default 64).
+ */
+public class ThreadModeBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int sessions = Integer.getInteger("benchmark.sessions", 500);
+        int commands = Integer.getInteger("benchmark.commands", 20);
+        int latencyMs = Integer.getInteger("benchmark.latencyMs", 20);
+        int platformThreads = Integer.getInteger("benchmark.platformThreads", 64);
+
+        ThreadFactory virtual = VirtualThreadExecutorFactory.virtualThreadFactory("bench-virtual-");
+
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/command", exchange -> {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"value\":null}".getBytes();
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.setExecutor(virtual != null
+                ? Executors.newCachedThreadPool(virtual)
+                : Executors.newCachedThreadPool());
+        server.start();
+        URL url = new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/command");
+
+        try {
+            System.out.printf("%-10s %8s %10s %12s%n", "mode", "workers", "wallTime", "peakThreads");
+            run("platform", Executors.newFixedThreadPool(platformThreads), platformThreads, sessions, commands, url);
+            if (virtual != null) {
+                run("virtual", Executors.newCachedThreadPool(virtual), sessions, sessions, commands, url);
+            } else {
+                System.out.println("virtual    (skipped: needs Java 21+)");
+            }
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static void run(String mode, ExecutorService workers, int workerCount,
+                            int sessions, int commands, URL url) throws InterruptedException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        CountDownLatch done = new CountDownLatch(sessions);
+
+        long start = System.nanoTime();
+        for (int s = 0; s < sessions; s++) {
+            workers.submit(() -> {
+                try {
+                    for (int c = 0; c < commands; c++) {
+                        call(url);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        long wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        workers.shutdown();
+
+        // Peak platform threads; each one reserves a full native stack, virtual threads do not
+        System.out.printf("%-10s %8d %8dms %12d%n", mode, workerCount, wallMillis, threads.getPeakThreadCount());
+    }
+
+    private static void call(URL url) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            try (InputStream in = connection.getInputStream()) {
+                in.readAllBytes();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package Benchmarks;
+
+import CoreFramework.utils.FrameRing;
+import CoreFramework.utils.MjpegAviWriter;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Base64;
+import java.util.Random;
+
+/**
+ * Compares what a PASSING test pays for its screencast video:
+ *  - full: every slot written to an AVI on disk, deleted when the test passes (videoRingSeconds=0)
+ *  - ring: slots kept in a FrameRing in memory and dropped when the test passes (videoRingSeconds=30)
+ * and, for reference, what the ring costs a FAILING test (encoding the last 30 s to disk).
+ *
+ * Frames are synthetic 1280x720 JPEGs handed over as base64, like CDP Page.screencastFrame;
+ * the page repaints in about a third of the slots. CPU is the test thread's CPU time (user + system).
+ * Optional system properties: benchmark.tests (default 20), benchmark.testSeconds (default 60).
+ */
+public class VideoRingBenchmark {
+
+    private static final int FPS = 10;
+    private static final int RING_SECONDS = 30;
+    private static final int RING_MAX_BYTES = 16 * 1024 * 1024;
+
+    public static void main(String[] args) throws Exception {
+        int tests = Integer.getInteger("benchmark.tests", 20);
+        int testSeconds = Integer.getInteger("benchmark.testSeconds", 60);
+        Path dir = Paths.get("target", "benchmark");
+        Files.createDirectories(dir);
+        String[] frames = syntheticFrames(8);
+        boolean[] repaints = repaintPattern(testSeconds * FPS);
+        FrameRing ring = new FrameRing(RING_MAX_BYTES, RING_SECONDS * FPS);
+
+        // Warm-up so JIT compilation is not measured
+        for (int i = 0; i < 5; i++) {
+            runFull(dir, frames, repaints);
+            runRing(ring, frames, repaints, dir);
+        }
+
+        System.out.printf("%-24s %8s %16s %16s%n", "variant", "tests", "disk bytes/test", "CPU ms/test");
+        report("full (before)", tests, () -> runFull(dir, frames, repaints));
+        report("ring, test passes", tests, () -> runRing(ring, frames, repaints, null));
+        report("ring, test fails", tests, () -> runRing(ring, frames, repaints, dir));
+        System.out.println("  ring memory per session: " + ring.getCapacityBytes() / (1024 * 1024) + "MB"
+                + ", simulated test length: " + testSeconds + "s at " + FPS + " fps");
+    }
+
+    /**
+     * Record the whole test into a file, then delete it because the test passed. Returns the bytes written.
+     */
+    private static long runFull(Path dir, String[] frames, boolean[] repaints) throws IOException {
+        Path file = Files.createTempFile(dir, "full", ".avi");
+        try {
+            try (MjpegAviWriter writer = new MjpegAviWriter(file, FPS)) {
+                for (int slot = 0; slot < repaints.length; slot++) {
+                    if (slot == 0 || repaints[slot]) {
+                        writer.writeFrame(Base64.getDecoder().decode(frames[slot % frames.length]));
+                    } else {
+                        writer.repeatFrame();
+                    }
+                }
+            }
+            return Files.size(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Keep the test in the ring; write the video only when failDir is set. Returns the bytes written.
+     */
+    private static long runRing(FrameRing ring, String[] frames, boolean[] repaints, Path failDir) throws IOException {
+        try {
+            for (int slot = 0; slot < repaints.length; slot++) {
+                if (slot == 0 || repaints[slot]) {
+                    ring.append(Base64.getDecoder().decode(frames[slot % frames.length]));
+                } else {
+                    ring.repeat();
+                }
+            }
+            if (failDir == null) {
+                return 0;
+            }
+            Path file = Files.createTempFile(failDir, "ring", ".avi");
+            try {
+                try (MjpegAviWriter writer = new MjpegAviWriter(file, FPS)) {
+                    ring.writeTo(writer);
+                }
+                return Files.size(file);
+            } finally {
+                Files.delete(file);
+            }
+        } finally {
+            ring.clear();
+        }
+    }
+
+    private static void report(String name, int tests, TestRun run) throws IOException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long bytes = 0;
+        long cpuBefore = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < tests; i++) {
+            bytes += run.run();
+        }
+        long cpu = threads.getCurrentThreadCpuTime() - cpuBefore;
+        System.out.printf("%-24s %8d %16d %16.1f%n", name, tests, bytes / tests, cpu / 1_000_000.0 / tests);
+    }
+
+    /**
+     * Distinct 1280x720 frames with some text-like noise, so the JPEGs have a realistic size.
+     */
+    private static String[] syntheticFrames(int count) throws IOException {
+        Random random = new Random(42);
+        String[] frames = new String[count];
+        for (int i = 0; i < count; i++) {
+            BufferedImage image = new BufferedImage(1280, 720, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = image.createGraphics();
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, 1280, 720);
+            for (int line = 0; line < 400; line++) {
+                g.setColor(new Color(random.nextInt(0xFFFFFF)));
+                g.fillRect(random.nextInt(1200), random.nextInt(700), 20 + random.nextInt(200), 2 + random.nextInt(12));
+            }
+            g.dispose();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "jpg", out);
+            frames[i] = Base64.getEncoder().encodeToString(out.toByteArray());
+        }
+        return frames;
+    }
+
+    private static boolean[] repaintPattern(int slots) {
+        Random random = new Random(7);
+        boolean[] repaints = new boolean[slots];
+        for (int i = 0; i < slots; i++) {
+            repaints[i] = random.nextInt(3) == 0;
+        }
+        return repaints;
+    }
+
+    private interface TestRun {
+        long run() throws IOException;
+    }
+}
@@ -0,0 +1,79 @@
+package FrameworkTest;
+
+import CoreFramework.utils.ArtifactStore;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs an ArtifactStore of its own on a temporary directory; the shared store is not touched.
+ */
+public class ArtifactStoreTest {
+
+    private static final long ONE_MB = 1024 * 1024;
+
+    @Test
+    public void identicalCapturesAreStoredOnce() throws IOException {
+        Path root = Files.createTempDirectory("artifact-store");
+        try {
+            ArtifactStore store = new ArtifactStore(root, 500 * ONE_MB, 14);
+            byte[] png = new byte[10_000];
+            Path first = store.store(new ByteArrayInputStream(png), "LoginWithEmptyPassword", "png");
+            Path second = store.store(new ByteArrayInputStream(png), "LoginWithEmptyPassword", "png");
+            store.store(new ByteArrayInputStream(new byte[] {1, 2, 3}), "OtherTest", "png");
+
+            Assert.assertNotEquals(first, second);
+            Assert.assertEquals(Files.readAllBytes(second), png);
+            Assert.assertEquals(files(root.resolve("objects")).size(), 2);
+            Assert.assertEquals(files(root.resolve("refs")).size(), 3);
+        } finally {
+            deleteTree(root);
+        }
+    }
+
+    @Test
+    public void leastRecentlyUsedObjectsAreEvictedAboveTheBudget() throws IOException {
+        Path root = Files.createTempDirectory("artifact-store");
+        try {
+            ArtifactStore store = new ArtifactStore(root, ONE_MB, 14);
+            byte[] older = new byte[600 * 1024];
+            byte[] newer = new byte[600 * 1024];
+            newer[0] = 1;
+            Path olderRef = store.store(new ByteArrayInputStream(older), "OldTest", "png");
+            // Age the object itself (the only one so far), so this works with copied refs as well as hard links
+            for (Path object : files(root.resolve("objects"))) {
+                Files.setLastModifiedTime(object, FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+            }
+            Path newerRef = store.store(new ByteArrayInputStream(newer), "NewTest", "png");
+
+            Assert.assertEquals(store.prune(), 1);
+
+            Assert.assertFalse(Files.exists(olderRef));
+            Assert.assertTrue(Files.exists(newerRef));
+            Assert.assertEquals(files(root.resolve("objects")).size(), 1);
+        } finally {
+            deleteTree(root);
+        }
+    }
+
+    private static List<Path> files(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+    }
+
+    private static void deleteTree(Path root) throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
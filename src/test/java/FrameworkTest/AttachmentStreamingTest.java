@@ -0,0 +1,113 @@
+package FrameworkTest;
+
+import CoreFramework.utils.reporting.ArtifactWriter;
+import CoreFramework.utils.reporting.ReportManager;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.AllureResultsWriter;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.model.TestResultContainer;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Attaches a 500 MB synthetic video through ReportManager and checks that the bytes allocated by the test thread
+ * and the ArtifactWriter thread that wrote it stay far below the file size, i.e. the file is streamed, not loaded.
+ * The attachment goes to a lifecycle of its own; the global Allure lifecycle is not replaced.
+ */
+public class AttachmentStreamingTest {
+
+    private static final long VIDEO_SIZE = 500L * 1024 * 1024;
+    private static final long MAX_ALLOCATED = 32L * 1024 * 1024;
+
+    @Test
+    public void largeVideoIsStreamedWithoutLoadingItIntoMemory() throws IOException {
+        Path video = Files.createTempFile("synthetic-recording", ".avi");
+        CountingWriter writer = new CountingWriter();
+        AllureLifecycle lifecycle = new AllureLifecycle(writer);
+        String uuid = UUID.randomUUID().toString();
+        try {
+            try (RandomAccessFile file = new RandomAccessFile(video.toFile(), "rw")) {
+                // Sparse file: reads back as 500 MB of zeros without using the disk space
+                file.setLength(VIDEO_SIZE);
+            }
+            lifecycle.scheduleTestCase(new TestResult().setUuid(uuid).setName("synthetic"));
+            lifecycle.startTestCase(uuid);
+
+            Map<Long, Long> before = allocatedPerThread();
+            ReportManager.attachFile(lifecycle, "Video - synthetic", "video/x-msvideo", "avi", video);
+            Assert.assertTrue(ArtifactWriter.flush(120, TimeUnit.SECONDS), "attachment was not written in time");
+            long allocated = allocatedSince(before, Thread.currentThread().getId())
+                    + allocatedSince(before, writer.threadId);
+
+            Assert.assertEquals(writer.attachmentBytes.get(), VIDEO_SIZE);
+            Assert.assertTrue(allocated < MAX_ALLOCATED,
+                    "Allocated " + allocated + " bytes to attach a " + VIDEO_SIZE + " byte file");
+        } finally {
+            Files.deleteIfExists(video);
+        }
+    }
+
+    private static Map<Long, Long> allocatedPerThread() {
+        com.sun.management.ThreadMXBean threads = threads();
+        Assert.assertTrue(threads.isThreadAllocatedMemorySupported(), "JVM cannot measure allocations");
+        threads.setThreadAllocatedMemoryEnabled(true);
+        Map<Long, Long> allocated = new HashMap<>();
+        for (long id : threads.getAllThreadIds()) {
+            allocated.put(id, threads.getThreadAllocatedBytes(id));
+        }
+        return allocated;
+    }
+
+    private static long allocatedSince(Map<Long, Long> before, long threadId) {
+        long now = threads().getThreadAllocatedBytes(threadId);
+        // A thread started in between (e.g. an artifact writer) counts from zero
+        return Math.max(0, now - Math.max(0, before.getOrDefault(threadId, 0L)));
+    }
+
+    private static com.sun.management.ThreadMXBean threads() {
+        return (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    }
+
+    /**
+     * Results writer that only counts attachment bytes, so the test needs no 500 MB of disk.
+     */
+    private static final class CountingWriter implements AllureResultsWriter {
+
+        private final AtomicLong attachmentBytes = new AtomicLong();
+        private volatile long threadId = -1;
+
+        @Override
+        public void write(TestResult testResult) {
+        }
+
+        @Override
+        public void write(TestResultContainer testResultContainer) {
+        }
+
+        @Override
+        public void write(String source, InputStream attachment) {
+            threadId = Thread.currentThread().getId();
+            byte[] buffer = new byte[64 * 1024];
+            try (InputStream in = attachment) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    attachmentBytes.addAndGet(read);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
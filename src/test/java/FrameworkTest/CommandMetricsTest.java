@@ -0,0 +1,91 @@
+package FrameworkTest;
+
+import CoreFramework.actions.CommandMetrics;
+import CoreFramework.utils.TestContext;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * Checks CommandMetrics against a stand-in driver (a dynamic proxy), so no browser is needed.
+ */
+public class CommandMetricsTest {
+
+    @BeforeMethod
+    public void resetRecorder() {
+        CommandMetrics.startTest();
+    }
+
+    @Test
+    public void commandsAreTimedPerTypeAndLocalCallsAreNotCounted() {
+        WebDriver driver = CommandMetrics.decorate(standInDriver());
+
+        driver.get("about:blank");
+        ((JavascriptExecutor) driver).executeScript("return 1");
+        ((JavascriptExecutor) driver).executeScript("return 2");
+        driver.manage().timeouts();
+        driver.getTitle();
+
+        CommandMetrics.Recorder recorder = TestContext.current().getCommandRecorder();
+        Assert.assertEquals(recorder.getRoundTrips(), 4);
+        Assert.assertEquals(recorder.getHistogram(CommandMetrics.Command.GET).getCount(), 1);
+        Assert.assertEquals(recorder.getHistogram(CommandMetrics.Command.EXECUTE_SCRIPT).getCount(), 2);
+        Assert.assertEquals(recorder.getHistogram(CommandMetrics.Command.OTHER).getCount(), 1);
+        Assert.assertTrue(CommandMetrics.testSummaryJson("demo").contains("EXECUTE_SCRIPT"));
+    }
+
+    @Test
+    public void failedCommandsAreStillRecorded() {
+        WebDriver driver = CommandMetrics.decorate(standInDriver());
+
+        Assert.assertThrows(NoSuchElementException.class, () -> driver.findElement(By.id("missing")));
+
+        CommandMetrics.Recorder recorder = TestContext.current().getCommandRecorder();
+        Assert.assertEquals(recorder.getHistogram(CommandMetrics.Command.FIND_ELEMENT).getCount(), 1);
+    }
+
+    @Test
+    public void decoratedDriverStillExposesTheRawDriver() {
+        WebDriver raw = standInDriver();
+        WebDriver driver = CommandMetrics.decorate(raw);
+
+        Assert.assertTrue(driver instanceof WrapsDriver);
+        Assert.assertSame(((WrapsDriver) driver).getWrappedDriver(), raw);
+    }
+
+    private static WebDriver standInDriver() {
+        return (WebDriver) Proxy.newProxyInstance(CommandMetricsTest.class.getClassLoader(),
+                new Class<?>[]{StandInDriver.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "findElement":
+                            throw new NoSuchElementException("stand-in has no elements");
+                        case "executeScript":
+                            return args[0];
+                        case "getTitle":
+                            return "stand-in";
+                        case "manage":
+                            return Proxy.newProxyInstance(CommandMetricsTest.class.getClassLoader(),
+                                    new Class<?>[]{WebDriver.Options.class}, (p, m, a) -> null);
+                        case "toString":
+                            return "stand-in driver";
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    public interface StandInDriver extends WebDriver, JavascriptExecutor {
+    }
+}
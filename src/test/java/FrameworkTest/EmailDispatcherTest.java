@@ -0,0 +1,161 @@
+package FrameworkTest;
+
+import CoreFramework.utils.reporting.EmailDispatcher;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs EmailDispatcher against a stand-in SMTP server: a tiny in-process server that speaks
+ * just enough SMTP (no TLS, no auth) to accept messages and count connections.
+ */
+public class EmailDispatcherTest {
+
+    @Test
+    public void messagesAreSentOverOneKeptAliveConnection() throws Exception {
+        StandInSmtpServer server = new StandInSmtpServer(0);
+        EmailDispatcher dispatcher = new EmailDispatcher("localhost", server.port(), false, null, null, 10, 3, 50);
+        try {
+            for (int i = 0; i < 3; i++) {
+                Assert.assertTrue(dispatcher.send(message(dispatcher, "Failure " + i)));
+            }
+
+            Assert.assertTrue(dispatcher.flush(10, TimeUnit.SECONDS));
+            Assert.assertEquals(server.messages.get(), 3);
+            Assert.assertEquals(server.connections.get(), 1);
+            Assert.assertEquals(dispatcher.getSentCount(), 3);
+        } finally {
+            stop(dispatcher, server);
+        }
+    }
+
+    @Test
+    public void rejectedSendIsRetriedOnANewConnection() throws Exception {
+        StandInSmtpServer server = new StandInSmtpServer(1);
+        EmailDispatcher dispatcher = new EmailDispatcher("localhost", server.port(), false, null, null, 10, 3, 200);
+        try {
+            long start = System.nanoTime();
+            Assert.assertTrue(dispatcher.send(message(dispatcher, "Flaky server")));
+            // Queuing never waits for SMTP
+            Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 200);
+
+            Assert.assertTrue(dispatcher.flush(10, TimeUnit.SECONDS));
+            Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 200,
+                    "retry should wait for the backoff");
+            Assert.assertEquals(server.messages.get(), 1);
+            Assert.assertEquals(server.connections.get(), 2);
+            Assert.assertEquals(dispatcher.getSentCount(), 1);
+        } finally {
+            stop(dispatcher, server);
+        }
+    }
+
+    private static void stop(EmailDispatcher dispatcher, StandInSmtpServer server) throws IOException {
+        try {
+            dispatcher.shutdown(5, TimeUnit.SECONDS);
+        } finally {
+            server.socket.close();
+        }
+    }
+
+    private static MimeMessage message(EmailDispatcher dispatcher, String subject) throws MessagingException {
+        MimeMessage message = dispatcher.newMessage();
+        message.setFrom(new InternetAddress("framework@example.com"));
+        message.setRecipients(Message.RecipientType.TO, "qa@example.com");
+        message.setSubject(subject);
+        message.setText("Test failed.");
+        return message;
+    }
+
+    /**
+     * Accepts SMTP sessions; the first rejectData DATA commands are answered with a temporary failure.
+     */
+    private static final class StandInSmtpServer {
+
+        private final ServerSocket socket;
+        private final AtomicInteger connections = new AtomicInteger();
+        private final AtomicInteger messages = new AtomicInteger();
+        private final AtomicInteger rejectData;
+
+        private StandInSmtpServer(int rejectData) throws IOException {
+            this.rejectData = new AtomicInteger(rejectData);
+            this.socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            Thread acceptor = new Thread(this::accept, "smtp-stand-in");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        private int port() {
+            return socket.getLocalPort();
+        }
+
+        private void accept() {
+            while (!socket.isClosed()) {
+                try {
+                    Socket client = socket.accept();
+                    connections.incrementAndGet();
+                    Thread session = new Thread(() -> serve(client), "smtp-stand-in-session");
+                    session.setDaemon(true);
+                    session.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void serve(Socket client) {
+            try (Socket s = client;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII));
+                 OutputStream out = s.getOutputStream()) {
+                reply(out, "220 stand-in ESMTP");
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.length() < 4 ? line.toUpperCase() : line.substring(0, 4).toUpperCase();
+                    switch (command) {
+                        case "EHLO":
+                            reply(out, "250-stand-in\r\n250 8BITMIME");
+                            break;
+                        case "DATA":
+                            reply(out, "354 end with <CRLF>.<CRLF>");
+                            while ((line = in.readLine()) != null && !line.equals(".")) {
+                                // message body is not needed
+                            }
+                            if (rejectData.getAndDecrement() > 0) {
+                                reply(out, "451 try again later");
+                            } else {
+                                messages.incrementAndGet();
+                                reply(out, "250 queued");
+                            }
+                            break;
+                        case "QUIT":
+                            reply(out, "221 bye");
+                            return;
+                        default:
+                            // HELO, MAIL, RCPT, RSET, NOOP
+                            reply(out, "250 OK");
+                    }
+                }
+            } catch (IOException ignored) {
+            }
+        }
+
+        private static void reply(OutputStream out, String text) throws IOException {
+            out.write((text + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package FrameworkTest;
+
+import CoreFramework.utils.reporting.FailureDigest;
+import org.openqa.selenium.NoSuchElementException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Groups synthetic failures with FailureDigest. env=testing, so EmailSender only prints what it would send.
+ * FailureDigest's counters and rate limit are JVM-wide: the test uses a recipient list of its own and checks
+ * how much the counters moved, and puts back the system properties it found.
+ */
+public class FailureDigestTest {
+
+    private static final String[] PROPERTIES = {
+            "env", "notificationEmails", "emailDigestWindowSeconds", "emailRateLimitPerHour"
+    };
+
+    @Test
+    public void signatureSkipsLibraryFramesAndIncludesTheLocator() {
+        NoSuchElementException error = new NoSuchElementException("no such element");
+        error.setStackTrace(new StackTraceElement[] {
+                new StackTraceElement("org.openqa.selenium.remote.RemoteWebDriver", "findElement", null, 10),
+                new StackTraceElement("CoreFramework.actions.UIActions", "click", null, 120),
+                new StackTraceElement("CoreTest.LoginTest", "loginWithEmptyPassword", null, 42),
+                new StackTraceElement("java.lang.reflect.Method", "invoke", null, 580)
+        });
+
+        String signature = FailureDigest.signatureOf(error, "//button[@id='login']");
+
+        Assert.assertEquals(signature, "org.openqa.selenium.NoSuchElementException"
+                + " at CoreFramework.actions.UIActions.click:120 < CoreTest.LoginTest.loginWithEmptyPassword:42"
+                + " on //button[@id='login']");
+    }
+
+    @Test
+    public void sameSignatureSharesOneDigestAndTheRateLimitSuppressesTheRest() {
+        Map<String, String> previous = new HashMap<>();
+        for (String property : PROPERTIES) {
+            previous.put(property, System.getProperty(property));
+        }
+        try {
+            reportSyntheticFailures();
+        } finally {
+            previous.forEach((property, value) -> {
+                if (value == null) {
+                    System.clearProperty(property);
+                } else {
+                    System.setProperty(property, value);
+                }
+            });
+        }
+    }
+
+    private static void reportSyntheticFailures() {
+        System.setProperty("env", "testing");
+        // A recipient list (and signatures) of its own, so earlier emails do not count against the limit
+        String run = UUID.randomUUID().toString();
+        System.setProperty("notificationEmails", "qa+" + run + "@example.com");
+        System.setProperty("emailDigestWindowSeconds", "60");
+        System.setProperty("emailRateLimitPerHour", "2");
+        Map<String, Long> before = metrics();
+
+        for (int i = 0; i < 3; i++) {
+            FailureDigest.report(failure("siteDownTest" + i, "TimeoutException at home page " + run));
+        }
+        FailureDigest.report(failure("loginTest", "NoSuchElementException on //button[@id='login'] " + run));
+        FailureDigest.report(failure("searchTest", "NoSuchElementException on //input[@id='search'] " + run));
+        FailureDigest.flush();
+
+        // One digest for the three, one single email, the third email is over the limit
+        Map<String, Long> after = metrics();
+        Assert.assertEquals(after.get("failures") - before.get("failures"), 5);
+        Assert.assertEquals(after.get("singleEmails") - before.get("singleEmails"), 1);
+        Assert.assertEquals(after.get("digests") - before.get("digests"), 1);
+        Assert.assertEquals(after.get("suppressedByRateLimit") - before.get("suppressedByRateLimit"), 1);
+    }
+
+    private static Map<String, Long> metrics() {
+        Map<String, Long> metrics = new HashMap<>();
+        for (String entry : FailureDigest.metricsSummary().split(", ")) {
+            String[] pair = entry.split("=");
+            metrics.put(pair[0], Long.parseLong(pair[1]));
+        }
+        return metrics;
+    }
+
+    private static FailureDigest.Failure failure(String testName, String signature) {
+        return new FailureDigest.Failure(testName, "CoreTest.SyntheticTest", null, "CRITICAL",
+                signature, "org.openqa.selenium.TimeoutException", List.of("Open home page"), List.of(), null);
+    }
+}
@@ -0,0 +1,71 @@
+package FrameworkTest;
+
+import CoreFramework.utils.FrameRing;
+import CoreFramework.utils.MjpegAviWriter;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Fills FrameRing with synthetic pictures and checks what it keeps within its byte and time limits.
+ */
+public class FrameRingTest {
+
+    @Test
+    public void byteBudgetEvictsTheOldestPictures() throws IOException {
+        FrameRing ring = new FrameRing(10_000, 100);
+        for (int i = 0; i < 5; i++) {
+            Assert.assertTrue(ring.append(picture(3_000)));
+        }
+        Assert.assertFalse(ring.append(picture(20_000)), "a picture larger than the budget is refused");
+
+        Path file = Files.createTempFile("ring", ".avi");
+        try {
+            try (MjpegAviWriter writer = new MjpegAviWriter(file, 10)) {
+                ring.writeTo(writer);
+                Assert.assertEquals(writer.getFrameCount(), 3);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        Assert.assertEquals(ring.getEvictedCount(), 2);
+    }
+
+    @Test
+    public void idlePageKeepsItsLastPictureForTheWholeWindow() throws IOException {
+        FrameRing ring = new FrameRing(1024 * 1024, 30);
+        ring.append(picture(3_000));
+        ring.append(picture(3_000));
+        for (int i = 0; i < 100; i++) {
+            ring.repeat();
+        }
+
+        Path file = Files.createTempFile("ring", ".avi");
+        try {
+            try (MjpegAviWriter writer = new MjpegAviWriter(file, 10)) {
+                ring.writeTo(writer);
+                // One picture, then "same again" for the rest of the 30 slots
+                Assert.assertEquals(writer.getFrameCount(), 30);
+                Assert.assertEquals(writer.getSizeBytes(), 224 + (8 + 3_000) + 29 * 8);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * A real JPEG header padded to the requested size (only the header is parsed).
+     */
+    private static byte[] picture(int size) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(16, 16, BufferedImage.TYPE_INT_RGB), "jpg", out);
+        return Arrays.copyOf(out.toByteArray(), size);
+    }
+}
@@ -0,0 +1,131 @@
+package FrameworkTest;
+
+import CoreFramework.actions.GridRouter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs GridRouter against stand-in nodes: tiny in-process HTTP servers that answer
+ * the W3C new-session and delete-session commands without launching a browser.
+ */
+public class GridRouterTest {
+
+    @Test
+    public void sessionsAreSpreadToTheLeastLoadedNode() throws IOException {
+        StandInNode first = new StandInNode(true);
+        StandInNode second = new StandInNode(true);
+        try {
+            GridRouter router = new GridRouter(List.of(first.url, second.url), 2, 3);
+
+            WebDriver a = router.createSession(new ChromeOptions());
+            WebDriver b = router.createSession(new ChromeOptions());
+
+            Assert.assertEquals(router.getActiveSessions(first.url), 1);
+            Assert.assertEquals(router.getActiveSessions(second.url), 1);
+
+            a.quit();
+            Assert.assertEquals(router.getActiveSessions(first.url) + router.getActiveSessions(second.url), 1);
+            b.quit();
+            Assert.assertEquals(first.deleted.get() + second.deleted.get(), 2);
+        } finally {
+            first.stop();
+            second.stop();
+        }
+    }
+
+    @Test
+    public void nodeCapacityIsRespected() throws IOException {
+        StandInNode node = new StandInNode(true);
+        try {
+            GridRouter router = new GridRouter(List.of(node.url), 1, 3);
+
+            WebDriver driver = router.createSession(new ChromeOptions());
+            Assert.assertThrows(IllegalStateException.class, () -> router.createSession(new ChromeOptions()));
+
+            driver.quit();
+            router.createSession(new ChromeOptions()).quit();
+            Assert.assertEquals(node.created.get(), 2);
+        } finally {
+            node.stop();
+        }
+    }
+
+    @Test
+    public void failedSessionCreationIsRetriedOnAnotherNode() throws IOException {
+        StandInNode broken = new StandInNode(false);
+        StandInNode healthy = new StandInNode(true);
+        try {
+            GridRouter router = new GridRouter(List.of(broken.url, healthy.url), 2, 3);
+
+            WebDriver driver = router.createSession(new ChromeOptions());
+
+            Assert.assertEquals(router.getActiveSessions(broken.url), 0);
+            Assert.assertEquals(router.getActiveSessions(healthy.url), 1);
+            Assert.assertEquals(healthy.created.get(), 1);
+            driver.quit();
+        } finally {
+            broken.stop();
+            healthy.stop();
+        }
+    }
+
+    private static final class StandInNode {
+        private final HttpServer server;
+        private final URL url;
+        private final AtomicInteger created = new AtomicInteger();
+        private final AtomicInteger deleted = new AtomicInteger();
+
+        private StandInNode(boolean acceptSessions) throws IOException {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/session", exchange -> handle(exchange, acceptSessions));
+            server.start();
+            url = new URL("http://127.0.0.1:" + server.getAddress().getPort());
+        }
+
+        private void stop() {
+            server.stop(0);
+        }
+
+        private void handle(HttpExchange exchange, boolean acceptSessions) throws IOException {
+            exchange.getRequestBody().readAllBytes();
+            String method = exchange.getRequestMethod();
+
+            if ("POST".equals(method) && exchange.getRequestURI().getPath().equals("/session")) {
+                if (!acceptSessions) {
+                    respond(exchange, 500, "{\"value\":{\"error\":\"session not created\","
+                            + "\"message\":\"stand-in node refuses sessions\",\"stacktrace\":\"\"}}");
+                    return;
+                }
+                int id = created.incrementAndGet();
+                respond(exchange, 200, "{\"value\":{\"sessionId\":\"stand-in-" + id + "\","
+                        + "\"capabilities\":{\"browserName\":\"chrome\"}}}");
+            } else if ("DELETE".equals(method)) {
+                deleted.incrementAndGet();
+                respond(exchange, 200, "{\"value\":null}");
+            } else {
+                respond(exchange, 404, "{\"value\":{\"error\":\"unknown command\",\"message\":\"\",\"stacktrace\":\"\"}}");
+            }
+        }
+
+        private void respond(HttpExchange exchange, int status, String body) throws IOException {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package FrameworkTest;
+
+import CoreFramework.utils.MjpegAviWriter;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes JPEG frames the way ScreencastRecorder does and checks the AVI structure of the result.
+ */
+public class MjpegAviWriterTest {
+
+    @Test
+    public void headerDescribesTheWrittenFrames() throws IOException {
+        Path file = Files.createTempFile("screencast", ".avi");
+        try {
+            byte[] jpeg = jpeg(320, 200);
+            try (MjpegAviWriter writer = new MjpegAviWriter(file, 10)) {
+                writer.writeFrame(jpeg);
+                writer.repeatFrame();
+                writer.writeFrame(jpeg);
+            }
+
+            ByteBuffer avi = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+            Assert.assertEquals(fourcc(avi, 0), "RIFF");
+            Assert.assertEquals(avi.getInt(4), avi.capacity() - 8);
+            Assert.assertEquals(fourcc(avi, 8), "AVI ");
+            Assert.assertEquals(avi.getInt(32), 100_000, "microseconds per frame");
+            Assert.assertEquals(avi.getInt(48), 3, "total frames");
+            Assert.assertEquals(avi.getInt(64), 320, "width");
+            Assert.assertEquals(avi.getInt(68), 200, "height");
+            Assert.assertEquals(fourcc(avi, 224), "00dc");
+            Assert.assertEquals(fourcc(avi, avi.capacity() - 8 - 3 * 16), "idx1");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void idleFramesCostARepeatChunkInsteadOfAPicture() throws IOException {
+        Path file = Files.createTempFile("screencast", ".avi");
+        try {
+            byte[] jpeg = jpeg(1280, 720);
+            long sizeAfterFirstFrame;
+            long sizeAfterIdleSecond;
+            try (MjpegAviWriter writer = new MjpegAviWriter(file, 10)) {
+                writer.writeFrame(jpeg);
+                sizeAfterFirstFrame = writer.getSizeBytes();
+                for (int i = 0; i < 10; i++) {
+                    writer.repeatFrame();
+                }
+                sizeAfterIdleSecond = writer.getSizeBytes();
+            }
+
+            Assert.assertEquals(sizeAfterIdleSecond - sizeAfterFirstFrame, 10 * 8);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static byte[] jpeg(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "jpg", out);
+        return out.toByteArray();
+    }
+
+    private static String fourcc(ByteBuffer buffer, int offset) {
+        byte[] code = new byte[4];
+        buffer.get(offset, code);
+        return new String(code, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,79 @@
+package FrameworkTest;
+
+import CoreFramework.utils.RecorderProcesses;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs RecorderProcesses against stand-in recorders: small Java programs (started with this JVM) that
+ * behave like a chatty or a hung ffmpeg, so no ffmpeg is needed.
+ */
+public class RecorderProcessesTest {
+
+    @Test
+    public void chattyRecorderIsDrainedAndStopsCleanly() throws Exception {
+        Path output = Files.createTempFile("recorder", ".avi");
+        RecorderProcesses.Encoder recorder = RecorderProcesses.launch(command(ChattyRecorder.class), output, false);
+
+        long start = System.nanoTime();
+        CompletableFuture<Boolean> stopping = RecorderProcesses.stop(recorder, TimeUnit.SECONDS.toMillis(20));
+        // The caller is not held up by the stop
+        Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 500);
+
+        // Without draining, the recorder would block on its full output pipe and never see "q"
+        Assert.assertTrue(stopping.get(30, TimeUnit.SECONDS), "recorder should exit by itself");
+        Assert.assertFalse(recorder.isAlive());
+        Files.deleteIfExists(output);
+    }
+
+    @Test
+    public void hungRecorderIsKilledAfterTheTimeout() throws Exception {
+        Path output = Files.createTempFile("recorder", ".avi");
+        RecorderProcesses.Encoder recorder = RecorderProcesses.launch(command(HungRecorder.class), output, false);
+
+        long start = System.nanoTime();
+        Assert.assertFalse(RecorderProcesses.await(RecorderProcesses.stop(recorder, 1_000)), "recorder should be killed");
+        Assert.assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 10);
+        Assert.assertFalse(recorder.isAlive());
+        Files.deleteIfExists(output);
+    }
+
+    private static List<String> command(Class<?> main) {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        return List.of(java, "-cp", System.getProperty("java.class.path"), main.getName());
+    }
+
+    /**
+     * Prints far more than a pipe buffer holds before it reads its input, then exits on "q" like ffmpeg.
+     */
+    public static final class ChattyRecorder {
+        public static void main(String[] args) throws IOException {
+            PrintStream out = System.out;
+            for (int i = 0; i < 50_000; i++) {
+                out.println("frame=" + i + " fps=15 q=-0.0 size=" + i * 64 + "kB time=00:00:01.00 bitrate=...");
+            }
+            out.flush();
+            int c;
+            while ((c = System.in.read()) != -1 && c != 'q') {
+                // wait for the quit key
+            }
+        }
+    }
+
+    /**
+     * Ignores its input and never exits by itself.
+     */
+    public static final class HungRecorder {
+        public static void main(String[] args) throws InterruptedException {
+            Thread.sleep(TimeUnit.MINUTES.toMillis(5));
+        }
+    }
+}